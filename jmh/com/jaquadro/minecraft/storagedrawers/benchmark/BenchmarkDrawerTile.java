@@ -0,0 +1,174 @@
+package com.jaquadro.minecraft.storagedrawers.benchmark;
+
+import com.jaquadro.minecraft.storagedrawers.api.storage.IDrawerAttributes;
+import com.jaquadro.minecraft.storagedrawers.api.storage.IDrawerGroup;
+import com.jaquadro.minecraft.storagedrawers.block.tile.tiledata.FractionalDrawerGroup;
+import com.jaquadro.minecraft.storagedrawers.block.tile.tiledata.StandardDrawerGroup;
+import com.jaquadro.minecraft.storagedrawers.capabilities.BasicDrawerAttributes;
+import com.jaquadro.minecraft.storagedrawers.storage.network.ControllerTracker;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.world.World;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityInject;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Drawer tile exposing its group through the drawer group capability, the way third-party storage joins a
+ * network.  Drawer changes are reported to controllers in the same way the mod's own drawers report them.
+ */
+public class BenchmarkDrawerTile extends TileEntity
+{
+    @CapabilityInject(IDrawerGroup.class)
+    static Capability<IDrawerGroup> DRAWER_GROUP_CAPABILITY = null;
+    @CapabilityInject(IDrawerAttributes.class)
+    static Capability<IDrawerAttributes> DRAWER_ATTRIBUTES_CAPABILITY = null;
+
+    private final BasicDrawerAttributes attributes = new BasicDrawerAttributes();
+    private final int stackCapacity;
+    private final IDrawerGroup group;
+
+    private BenchmarkDrawerTile (int drawerCount, int stackCapacity, boolean fractional) {
+        this.stackCapacity = stackCapacity;
+
+        if (fractional) {
+            FractionalGroup fractionalGroup = new FractionalGroup(drawerCount);
+            fractionalGroup.setCapabilityProvider(this);
+            group = fractionalGroup;
+        }
+        else {
+            StandardGroup standardGroup = new StandardGroup(drawerCount);
+            standardGroup.setCapabilityProvider(this);
+            group = standardGroup;
+        }
+    }
+
+    public static BenchmarkDrawerTile standard (int drawerCount, int stackCapacity) {
+        return new BenchmarkDrawerTile(drawerCount, stackCapacity, false);
+    }
+
+    /**
+     * Creates a fractional drawer holding the given tiers, ordered from the largest, with each conversion rate
+     * given in units of the smallest tier.
+     */
+    public static BenchmarkDrawerTile fractional (int stackCapacity, ItemStack[] tiers, int[] convRates, int pooledCount) {
+        BenchmarkDrawerTile tile = new BenchmarkDrawerTile(tiers.length, stackCapacity, true);
+
+        NBTTagList items = new NBTTagList();
+        for (int i = 0; i < tiers.length; i++) {
+            NBTTagCompound slot = new NBTTagCompound();
+            slot.setByte("Slot", (byte)i);
+            slot.setInteger("Conv", convRates[i]);
+            slot.setTag("Item", tiers[i].writeToNBT(new NBTTagCompound()));
+            items.appendTag(slot);
+        }
+
+        NBTTagCompound drawers = new NBTTagCompound();
+        drawers.setInteger("Count", pooledCount);
+        drawers.setTag("Items", items);
+
+        NBTTagCompound tag = new NBTTagCompound();
+        tag.setTag("Drawers", drawers);
+        ((FractionalDrawerGroup)tile.group).readFromNBT(tag);
+
+        return tile;
+    }
+
+    public IDrawerGroup getGroup () {
+        return group;
+    }
+
+    @Override
+    public boolean hasCapability (@Nonnull Capability<?> capability, @Nullable EnumFacing facing) {
+        return capability == DRAWER_GROUP_CAPABILITY
+            || capability == DRAWER_ATTRIBUTES_CAPABILITY
+            || super.hasCapability(capability, facing);
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T getCapability (@Nonnull Capability<T> capability, @Nullable EnumFacing facing) {
+        if (capability == DRAWER_GROUP_CAPABILITY)
+            return (T) group;
+        if (capability == DRAWER_ATTRIBUTES_CAPABILITY)
+            return (T) attributes;
+
+        return super.getCapability(capability, facing);
+    }
+
+    private void notifyItemChanged () {
+        if (world != null)
+            ControllerTracker.notifyNodeChanged(world, pos);
+    }
+
+    private void notifyAmountChanged () {
+        if (world != null)
+            ControllerTracker.notifyNodeAmountChanged(world, pos);
+    }
+
+    private class StandardGroup extends StandardDrawerGroup
+    {
+        StandardGroup (int slotCount) {
+            super(slotCount);
+        }
+
+        @Override
+        @Nonnull
+        protected DrawerData createDrawer (int slot) {
+            return new DrawerData(this) {
+                @Override
+                protected int getStackCapacity () {
+                    return stackCapacity;
+                }
+
+                @Override
+                protected void onItemChanged () {
+                    notifyItemChanged();
+                }
+
+                @Override
+                protected void onAmountChanged () {
+                    notifyAmountChanged();
+                }
+            };
+        }
+
+        @Override
+        protected World getWorld () {
+            return world;
+        }
+    }
+
+    private class FractionalGroup extends FractionalDrawerGroup
+    {
+        FractionalGroup (int slotCount) {
+            super(slotCount);
+        }
+
+        @Override
+        protected World getWorld () {
+            return world;
+        }
+
+        @Override
+        protected int getStackCapacity () {
+            return stackCapacity;
+        }
+
+        @Override
+        protected void onItemChanged () {
+            notifyItemChanged();
+        }
+
+        @Override
+        protected void onAmountChanged () {
+            notifyAmountChanged();
+        }
+    }
+}
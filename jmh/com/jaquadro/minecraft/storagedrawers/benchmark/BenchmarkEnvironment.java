@@ -0,0 +1,132 @@
+package com.jaquadro.minecraft.storagedrawers.benchmark;
+
+import com.jaquadro.minecraft.storagedrawers.StorageDrawers;
+import com.jaquadro.minecraft.storagedrawers.block.tile.TileEntityController;
+import com.jaquadro.minecraft.storagedrawers.block.tile.tiledata.FractionalDrawerGroup;
+import com.jaquadro.minecraft.storagedrawers.block.tile.tiledata.StandardDrawerGroup;
+import com.jaquadro.minecraft.storagedrawers.capabilities.CapabilityDrawerAttributes;
+import com.jaquadro.minecraft.storagedrawers.capabilities.CapabilityDrawerGroup;
+import com.jaquadro.minecraft.storagedrawers.capabilities.CapabilityItemRepository;
+import com.jaquadro.minecraft.storagedrawers.capabilities.DrawerItemHandler;
+import com.jaquadro.minecraft.storagedrawers.config.ConfigManager;
+import com.jaquadro.minecraft.storagedrawers.config.OreDictRegistry;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityInject;
+import net.minecraftforge.common.capabilities.CapabilityManager;
+import net.minecraftforge.items.CapabilityItemHandler;
+import org.apache.logging.log4j.LogManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Headless stand-in for the parts of mod loading the storage code depends on.  Vanilla is bootstrapped directly,
+ * the mod's static registries get fresh instances, and capabilities are registered and injected by hand, since
+ * FML's annotation scan never runs outside the game.
+ */
+public final class BenchmarkEnvironment
+{
+    private static final String[] INJECTED_CLASSES = new String[] {
+        CapabilityItemHandler.class.getName(),
+        StandardDrawerGroup.class.getName(),
+        StandardDrawerGroup.DrawerData.class.getName(),
+        FractionalDrawerGroup.class.getName(),
+        FractionalDrawerGroup.class.getName() + "$FractionalStorage",
+        DrawerItemHandler.class.getName(),
+        TileEntityController.class.getName(),
+        BenchmarkDrawerTile.class.getName(),
+    };
+
+    private static boolean initialized;
+    private static List<Item> plainItems;
+
+    private BenchmarkEnvironment () { }
+
+    public static synchronized void init () {
+        if (initialized)
+            return;
+
+        Bootstrap.register();
+
+        StorageDrawers.log = LogManager.getLogger(StorageDrawers.MOD_ID);
+        StorageDrawers.config = new ConfigManager(createConfigFile());
+        StorageDrawers.oreDictRegistry = new OreDictRegistry();
+
+        CapabilityItemHandler.register();
+        CapabilityDrawerAttributes.register();
+        CapabilityDrawerGroup.register();
+        CapabilityItemRepository.register();
+        injectCapabilities();
+
+        plainItems = new ArrayList<>();
+        for (Item item : Item.REGISTRY) {
+            if (item == Items.AIR || item.getHasSubtypes() || item.isDamageable())
+                continue;
+            if (item.getItemStackLimit(new ItemStack(item)) == 64)
+                plainItems.add(item);
+        }
+
+        initialized = true;
+    }
+
+    /**
+     * Returns a stack of one of a run of distinct, untagged items.  Stacks with the same index are equal.
+     */
+    public static ItemStack distinctItem (int index) {
+        Item item = plainItems.get(index % plainItems.size());
+        return new ItemStack(item, 1, index / plainItems.size());
+    }
+
+    private static File createConfigFile () {
+        try {
+            File file = File.createTempFile(StorageDrawers.MOD_ID, ".cfg");
+            file.deleteOnExit();
+            return file;
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Could not create benchmark config", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void injectCapabilities () {
+        Map<String, Capability<?>> providers;
+        try {
+            Field field = CapabilityManager.class.getDeclaredField("providers");
+            field.setAccessible(true);
+            providers = (Map<String, Capability<?>>) field.get(CapabilityManager.INSTANCE);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Could not read registered capabilities", e);
+        }
+
+        for (String className : INJECTED_CLASSES) {
+            try {
+                for (Field field : Class.forName(className).getDeclaredFields()) {
+                    CapabilityInject inject = field.getAnnotation(CapabilityInject.class);
+                    if (inject == null || !Modifier.isStatic(field.getModifiers()))
+                        continue;
+
+                    for (Map.Entry<String, Capability<?>> entry : providers.entrySet()) {
+                        if (entry.getKey().equals(inject.value().getName())) {
+                            field.setAccessible(true);
+                            field.set(null, entry.getValue());
+                        }
+                    }
+                }
+            }
+            catch (ReflectiveOperationException e) {
+                throw new RuntimeException("Could not inject capabilities into " + className, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.jaquadro.minecraft.storagedrawers.benchmark;
+
+import com.jaquadro.minecraft.storagedrawers.api.storage.INetworked;
+import net.minecraft.block.Block;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.profiler.Profiler;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.GameType;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldProviderSurface;
+import net.minecraft.world.WorldSettings;
+import net.minecraft.world.WorldType;
+import net.minecraft.world.chunk.IChunkProvider;
+import net.minecraft.world.storage.WorldInfo;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * World holding only the blocks and tile entities placed into it.  Every position counts as loaded, and the chunk
+ * bookkeeping tile entities trigger is ignored.
+ */
+public class BenchmarkWorld extends World
+{
+    /**
+     * Stand-in for any networked block.  The controller only checks for {@link INetworked} while walking.
+     */
+    public static final Block NETWORK_BLOCK = new NetworkBlock();
+
+    private final Map<BlockPos, IBlockState> blocks = new HashMap<>();
+    private final Map<BlockPos, TileEntity> tiles = new HashMap<>();
+
+    public BenchmarkWorld () {
+        super(null, new WorldInfo(new WorldSettings(0, GameType.SURVIVAL, false, false, WorldType.FLAT), "benchmark"),
+            new WorldProviderSurface(), new Profiler(), false);
+    }
+
+    public void setNode (BlockPos pos, TileEntity tile) {
+        blocks.put(pos, NETWORK_BLOCK.getDefaultState());
+        tiles.put(pos, tile);
+
+        tile.setWorld(this);
+        tile.setPos(pos);
+    }
+
+    @Override
+    @Nonnull
+    public IBlockState getBlockState (@Nonnull BlockPos pos) {
+        IBlockState state = blocks.get(pos);
+        return (state != null) ? state : Blocks.AIR.getDefaultState();
+    }
+
+    @Override
+    @Nullable
+    public TileEntity getTileEntity (@Nonnull BlockPos pos) {
+        return tiles.get(pos);
+    }
+
+    @Override
+    public boolean isBlockLoaded (@Nonnull BlockPos pos, boolean allowEmpty) {
+        return pos.getY() >= 0 && pos.getY() < getHeight();
+    }
+
+    @Override
+    public void markChunkDirty (@Nonnull BlockPos pos, @Nonnull TileEntity tile) { }
+
+    @Override
+    public void updateComparatorOutputLevel (@Nonnull BlockPos pos, @Nonnull Block block) { }
+
+    @Override
+    @Nonnull
+    protected IChunkProvider createChunkProvider () {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected boolean isChunkLoaded (int x, int z, boolean allowEmpty) {
+        return true;
+    }
+
+    private static class NetworkBlock extends Block implements INetworked
+    {
+        NetworkBlock () {
+            super(Material.ROCK);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.jaquadro.minecraft.storagedrawers.benchmark;
+
+import com.jaquadro.minecraft.storagedrawers.config.CompTierRegistry;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagInt;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compacting rule lookups as the number of registered rules grows.  Rules pair distinct tagged stacks so any
+ * number of them can be registered without clashing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompTierRegistryBenchmark
+{
+    @Param({ "10", "100", "1000" })
+    public int ruleCount;
+
+    private CompTierRegistry registry;
+    private ItemStack[] uppers;
+    private ItemStack[] lowers;
+    private ItemStack missing;
+    private int next;
+
+    @Setup
+    public void setup () {
+        BenchmarkEnvironment.init();
+
+        registry = new CompTierRegistry();
+        uppers = new ItemStack[ruleCount];
+        lowers = new ItemStack[ruleCount];
+
+        for (int i = 0; i < ruleCount; i++) {
+            uppers[i] = ruleStack(new ItemStack(Items.BOOK), i);
+            lowers[i] = ruleStack(new ItemStack(Items.PAPER), i);
+            registry.register(uppers[i], lowers[i], 3);
+        }
+
+        missing = ruleStack(new ItemStack(Items.PAPER), ruleCount);
+    }
+
+    @Benchmark
+    public CompTierRegistry.Record findHigherTier () {
+        return registry.findHigherTier(lowers[nextIndex()]);
+    }
+
+    @Benchmark
+    public CompTierRegistry.Record findLowerTier () {
+        return registry.findLowerTier(uppers[nextIndex()]);
+    }
+
+    @Benchmark
+    public CompTierRegistry.Record findMissing () {
+        return registry.findHigherTier(missing);
+    }
+
+    private int nextIndex () {
+        if (++next == ruleCount)
+            next = 0;
+
+        return next;
+    }
+
+    private static ItemStack ruleStack (ItemStack stack, int rule) {
+        stack.setTagInfo("Rule", new NBTTagInt(rule));
+        return stack;
+    }
+}
@@ -0,0 +1,153 @@
+package com.jaquadro.minecraft.storagedrawers.benchmark;
+
+import com.jaquadro.minecraft.storagedrawers.api.capabilities.IItemRepository;
+import com.jaquadro.minecraft.storagedrawers.api.storage.IDrawer;
+import com.jaquadro.minecraft.storagedrawers.api.storage.IDrawerGroup;
+import com.jaquadro.minecraft.storagedrawers.block.tile.TileEntityController;
+import com.jaquadro.minecraft.storagedrawers.storage.network.ControllerTracker;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A controller over a synthetic network of quad drawers packed around it.  Three quarters of the slots hold
+ * distinct items at half capacity and the rest are empty.  Network walks are measured through a full cache
+ * rebuild; the repository operations pair each change with its inverse.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerBenchmark
+{
+    private static final int DRAWERS_PER_NODE = 4;
+    private static final int STACK_CAPACITY = 32;
+    private static final int AMOUNT = 16;
+
+    @Param({ "16", "256", "2048" })
+    public int networkSize;
+
+    private TileEntityController controller;
+    private IItemRepository repository;
+
+    private ItemStack[] storedItems;
+    private ItemStack missingItem;
+    private int next;
+
+    @Setup
+    public void setup () {
+        BenchmarkEnvironment.init();
+
+        BenchmarkWorld world = new BenchmarkWorld();
+        BlockPos origin = new BlockPos(0, 128, 0);
+
+        controller = new TileEntityController();
+        world.setNode(origin, controller);
+        ControllerTracker.register(controller);
+
+        List<ItemStack> items = new ArrayList<>();
+        int slotIndex = 0;
+
+        for (BlockPos pos : packedPositions(origin, networkSize)) {
+            BenchmarkDrawerTile tile = BenchmarkDrawerTile.standard(DRAWERS_PER_NODE, STACK_CAPACITY);
+            world.setNode(pos, tile);
+
+            IDrawerGroup group = tile.getGroup();
+            for (int i = 0; i < DRAWERS_PER_NODE; i++, slotIndex++) {
+                if (slotIndex % 4 == 3)
+                    continue;
+
+                ItemStack item = BenchmarkEnvironment.distinctItem(items.size());
+                IDrawer drawer = group.getDrawer(i).setStoredItem(item);
+                drawer.setStoredItemCount(drawer.getMaxCapacity() / 2);
+                items.add(item);
+            }
+        }
+
+        storedItems = new ItemStack[items.size()];
+        for (int i = 0; i < storedItems.length; i++) {
+            storedItems[i] = items.get(i).copy();
+            storedItems[i].setCount(AMOUNT);
+        }
+
+        missingItem = BenchmarkEnvironment.distinctItem(items.size());
+        missingItem.setCount(AMOUNT);
+
+        controller.updateCache();
+        repository = controller.getItemRepository();
+    }
+
+    @Benchmark
+    public void rebuildNetwork () {
+        controller.updateCache();
+    }
+
+    @Benchmark
+    public ItemStack insertExtract () {
+        ItemStack stack = nextItem();
+        repository.insertItem(stack, false);
+        return repository.extractItem(stack, AMOUNT, false);
+    }
+
+    @Benchmark
+    public ItemStack insertSimulated () {
+        return repository.insertItem(nextItem(), true);
+    }
+
+    @Benchmark
+    public ItemStack insertMissingSimulated () {
+        return repository.insertItem(missingItem, true);
+    }
+
+    @Benchmark
+    public ItemStack extractSimulated () {
+        return repository.extractItem(nextItem(), AMOUNT, true);
+    }
+
+    @Benchmark
+    public int getStoredItemCount () {
+        return repository.getStoredItemCount(nextItem());
+    }
+
+    private ItemStack nextItem () {
+        if (++next == storedItems.length)
+            next = 0;
+
+        return storedItems[next];
+    }
+
+    /**
+     * Returns the given number of positions next to the origin, nearest first, so the network forms a compact
+     * blob that stays within the controller's range for as long as possible.
+     */
+    private static List<BlockPos> packedPositions (BlockPos origin, int count) {
+        List<BlockPos> positions = new ArrayList<>(count);
+        Set<BlockPos> seen = new HashSet<>();
+        Deque<BlockPos> queue = new ArrayDeque<>();
+
+        seen.add(origin);
+        queue.add(origin);
+
+        while (positions.size() < count && !queue.isEmpty()) {
+            BlockPos pos = queue.poll();
+            for (EnumFacing side : EnumFacing.VALUES) {
+                BlockPos neighbor = pos.offset(side);
+                if (!seen.add(neighbor))
+                    continue;
+
+                queue.add(neighbor);
+                positions.add(neighbor);
+                if (positions.size() == count)
+                    break;
+            }
+        }
+
+        return positions;
+    }
+}
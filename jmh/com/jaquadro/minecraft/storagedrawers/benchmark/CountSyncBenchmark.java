@@ -0,0 +1,97 @@
+package com.jaquadro.minecraft.storagedrawers.benchmark;
+
+import com.jaquadro.minecraft.storagedrawers.network.CountBatchMessage;
+import com.jaquadro.minecraft.storagedrawers.network.CountUpdateMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding cost and size of count updates, in the fixed-width and compact forms.  Every message carries a small
+ * change to each of a set of drawer slots spread over a few chunks, as a busy sorting system would produce.
+ *
+ * Bytes written and entries sent are reported as auxiliary counters; their ratio is the bytes per update.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CountSyncBenchmark
+{
+    @Param({ "1", "32", "512" })
+    public int entryCount;
+
+    private BlockPos[] positions;
+    private int[] counts;
+    private Random random;
+
+    private CountBatchMessage.Baseline baseline;
+    private ByteBuf buffer;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Traffic
+    {
+        public long bytes;
+        public long entries;
+
+        @Setup(Level.Iteration)
+        public void reset () {
+            bytes = 0;
+            entries = 0;
+        }
+    }
+
+    @Setup
+    public void setup () {
+        random = new Random(0);
+        positions = new BlockPos[entryCount];
+        counts = new int[entryCount];
+
+        for (int i = 0; i < entryCount; i++) {
+            positions[i] = new BlockPos(random.nextInt(48), 64 + random.nextInt(8), random.nextInt(48));
+            counts[i] = random.nextInt(2048);
+        }
+
+        baseline = new CountBatchMessage.Baseline();
+        buffer = Unpooled.buffer();
+    }
+
+    @Benchmark
+    public int encodeFixed (Traffic traffic) {
+        CountUpdateMessage update = nextUpdate();
+        return encode(traffic, update, update.getEntryCount());
+    }
+
+    @Benchmark
+    public int encodeCompact (Traffic traffic) {
+        CountUpdateMessage update = nextUpdate();
+        return encode(traffic, new CountBatchMessage(baseline, update), update.getEntryCount());
+    }
+
+    private int encode (Traffic traffic, IMessage message, int entries) {
+        buffer.clear();
+        message.toBytes(buffer);
+
+        traffic.bytes += buffer.writerIndex();
+        traffic.entries += entries;
+        return buffer.writerIndex();
+    }
+
+    private CountUpdateMessage nextUpdate () {
+        CountUpdateMessage update = new CountUpdateMessage();
+        for (int i = 0; i < entryCount; i++) {
+            counts[i] = Math.max(counts[i] + random.nextInt(129) - 64, 0);
+            update.addEntry(positions[i], i % 4, counts[i]);
+        }
+
+        return update;
+    }
+}
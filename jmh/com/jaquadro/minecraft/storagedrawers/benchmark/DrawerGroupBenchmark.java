@@ -0,0 +1,130 @@
+package com.jaquadro.minecraft.storagedrawers.benchmark;
+
+import com.jaquadro.minecraft.storagedrawers.api.capabilities.IItemRepository;
+import com.jaquadro.minecraft.storagedrawers.api.storage.IDrawer;
+import com.jaquadro.minecraft.storagedrawers.api.storage.IDrawerGroup;
+import com.jaquadro.minecraft.storagedrawers.capabilities.DrawerItemHandler;
+import com.jaquadro.minecraft.storagedrawers.capabilities.DrawerItemRepository;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.items.IItemHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single drawer blocks, driven directly and through their item repository and item handler.  Each operation is
+ * paired with its inverse so the drawers hold the same amounts on every invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrawerGroupBenchmark
+{
+    private static final int STACK_CAPACITY = 32;
+    private static final int AMOUNT = 16;
+
+    private IDrawerGroup standard;
+    private IDrawerGroup fractional;
+
+    private IItemRepository standardRepository;
+    private IItemRepository fractionalRepository;
+    private IItemHandler standardHandler;
+
+    private ItemStack[] standardItems;
+    private ItemStack standardLastItem;
+    private ItemStack fractionalNugget;
+    private ItemStack fractionalBlock;
+
+    @Setup
+    public void setup () {
+        BenchmarkEnvironment.init();
+
+        BenchmarkWorld world = new BenchmarkWorld();
+
+        BenchmarkDrawerTile standardTile = BenchmarkDrawerTile.standard(4, STACK_CAPACITY);
+        world.setNode(new BlockPos(0, 64, 0), standardTile);
+        standard = standardTile.getGroup();
+
+        standardItems = new ItemStack[standard.getDrawerCount()];
+        for (int i = 0; i < standardItems.length; i++) {
+            standardItems[i] = BenchmarkEnvironment.distinctItem(i);
+            IDrawer drawer = standard.getDrawer(i).setStoredItem(standardItems[i]);
+            drawer.setStoredItemCount(drawer.getMaxCapacity() / 2);
+        }
+        standardLastItem = stackOf(standardItems[standardItems.length - 1], AMOUNT);
+
+        fractionalNugget = new ItemStack(Items.IRON_NUGGET, AMOUNT);
+        fractionalBlock = new ItemStack(Blocks.IRON_BLOCK, 1);
+
+        ItemStack[] tiers = new ItemStack[] { new ItemStack(Blocks.IRON_BLOCK), new ItemStack(Items.IRON_INGOT), new ItemStack(Items.IRON_NUGGET) };
+        BenchmarkDrawerTile fractionalTile = BenchmarkDrawerTile.fractional(STACK_CAPACITY, tiers, new int[] { 81, 9, 1 }, 64 * 81 * 8);
+        world.setNode(new BlockPos(1, 64, 0), fractionalTile);
+        fractional = fractionalTile.getGroup();
+
+        standardRepository = new DrawerItemRepository(standard);
+        fractionalRepository = new DrawerItemRepository(fractional);
+        standardHandler = new DrawerItemHandler(standard);
+    }
+
+    @Benchmark
+    public int standardAdjustStoredItemCount () {
+        IDrawer drawer = standard.getDrawer(0);
+        return drawer.adjustStoredItemCount(AMOUNT) + drawer.adjustStoredItemCount(-AMOUNT);
+    }
+
+    @Benchmark
+    public int fractionalAdjustStoredItemCount () {
+        IDrawer small = fractional.getDrawer(2);
+        IDrawer large = fractional.getDrawer(0);
+        return small.adjustStoredItemCount(81) + large.adjustStoredItemCount(-1);
+    }
+
+    @Benchmark
+    public ItemStack standardRepositoryInsertExtract () {
+        // The last slot is matched only after the others have been tested
+        standardRepository.insertItem(standardLastItem, false);
+        return standardRepository.extractItem(standardLastItem, AMOUNT, false);
+    }
+
+    @Benchmark
+    public ItemStack standardRepositoryInsertSimulated () {
+        return standardRepository.insertItem(standardLastItem, true);
+    }
+
+    @Benchmark
+    public ItemStack fractionalRepositoryInsertExtract () {
+        fractionalRepository.insertItem(fractionalNugget, false);
+        fractionalRepository.insertItem(fractionalBlock, false);
+        fractionalRepository.extractItem(fractionalNugget, AMOUNT, false);
+        return fractionalRepository.extractItem(fractionalBlock, 1, false);
+    }
+
+    @Benchmark
+    public ItemStack handlerInsertExtract () {
+        // Slot 0 of the handler is the virtual slot
+        standardHandler.insertItem(1, stackOf(standardItems[0], AMOUNT), false);
+        return standardHandler.extractItem(1, AMOUNT, false);
+    }
+
+    @Benchmark
+    public ItemStack handlerInsertSimulated () {
+        return standardHandler.insertItem(1, stackOf(standardItems[0], AMOUNT), true);
+    }
+
+    @Benchmark
+    public ItemStack handlerGetStackInSlot () {
+        return standardHandler.getStackInSlot(1);
+    }
+
+    private static ItemStack stackOf (ItemStack item, int count) {
+        ItemStack stack = item.copy();
+        stack.setCount(count);
+        return stack;
+    }
+}
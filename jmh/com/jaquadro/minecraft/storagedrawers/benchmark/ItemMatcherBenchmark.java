@@ -0,0 +1,113 @@
+package com.jaquadro.minecraft.storagedrawers.benchmark;
+
+import com.jaquadro.minecraft.storagedrawers.util.ItemStackMatcher;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTTagString;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drawer matchers tested against candidates that are the prototype itself, an equal copy, a copy differing in
+ * one tag value (or in damage, for untagged stacks), a copy with an extra tag entry, and a different item.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemMatcherBenchmark
+{
+    @Param({ "plain", "light", "heavy" })
+    public String tags;
+
+    private ItemStack prototype;
+    private ItemStackMatcher matcher;
+
+    private ItemStack equalCopy;
+    private ItemStack differentValue;
+    private ItemStack differentShape;
+    private ItemStack differentItem;
+
+    @Setup
+    public void setup () {
+        BenchmarkEnvironment.init();
+
+        prototype = new ItemStack(Items.PAPER);
+        if (tags.equals("light"))
+            prototype.setTagCompound(createTag(1, 1, 16));
+        else if (tags.equals("heavy"))
+            prototype.setTagCompound(createTag(16, 64, 256));
+
+        matcher = new ItemStackMatcher(prototype);
+        equalCopy = prototype.copy();
+
+        differentValue = prototype.copy();
+        if (prototype.hasTagCompound())
+            differentValue.getTagCompound().setString("Last", "changed");
+        else
+            differentValue.setItemDamage(1);
+
+        differentShape = prototype.copy();
+        differentShape.setTagInfo("Extra", new NBTTagString("extra"));
+
+        differentItem = new ItemStack(Items.BOOK);
+        differentItem.setTagCompound(prototype.hasTagCompound() ? prototype.getTagCompound().copy() : null);
+    }
+
+    @Benchmark
+    public boolean matchesSelf () {
+        return matcher.matches(prototype);
+    }
+
+    @Benchmark
+    public boolean matchesEqualCopy () {
+        return matcher.matches(equalCopy);
+    }
+
+    @Benchmark
+    public boolean matchesDifferentValue () {
+        return matcher.matches(differentValue);
+    }
+
+    @Benchmark
+    public boolean matchesDifferentShape () {
+        return matcher.matches(differentShape);
+    }
+
+    @Benchmark
+    public boolean matchesDifferentItem () {
+        return matcher.matches(differentItem);
+    }
+
+    @Benchmark
+    public boolean areItemsEqualCopy () {
+        return ItemStackMatcher.areItemsEqual(prototype, equalCopy);
+    }
+
+    /**
+     * Builds a tag with the given number of top-level entries, one of them a list of strings, plus a "Last" entry
+     * for candidates to change.
+     */
+    private static NBTTagCompound createTag (int entries, int listSize, int stringLength) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < stringLength; i++)
+            text.append((char)('a' + i % 26));
+
+        NBTTagList list = new NBTTagList();
+        for (int i = 0; i < listSize; i++)
+            list.appendTag(new NBTTagString(text.toString() + i));
+
+        NBTTagCompound tag = new NBTTagCompound();
+        tag.setTag("List", list);
+        for (int i = 1; i < entries; i++)
+            tag.setInteger("Entry" + i, i);
+
+        tag.setString("Last", "original");
+        return tag;
+    }
+}
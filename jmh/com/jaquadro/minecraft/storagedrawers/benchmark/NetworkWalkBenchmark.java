@@ -0,0 +1,82 @@
+package com.jaquadro.minecraft.storagedrawers.benchmark;
+
+import com.jaquadro.minecraft.storagedrawers.storage.network.NetworkWalker;
+import com.jaquadro.minecraft.storagedrawers.util.LongOpenHashSet;
+import com.jaquadro.minecraft.storagedrawers.util.LongRingQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The controller's network walk on its own, over a compact blob of member blocks with no world behind it.  Run
+ * with the gc profiler (the jmh task adds it) to see the allocation per scan; a reused walker should allocate
+ * nothing once its buffers have grown.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetworkWalkBenchmark
+{
+    @Param({ "1000", "10000", "50000" })
+    public int networkSize;
+
+    private long origin;
+    private LongOpenHashSet members;
+    private NetworkWalker.INodeVisitor visitor;
+    private NetworkWalker walker;
+
+    @Setup
+    public void setup () {
+        origin = NetworkWalker.pack(0, 128, 0);
+        members = packedNodes(origin, networkSize);
+        visitor = members::contains;
+        walker = new NetworkWalker();
+    }
+
+    @Benchmark
+    public int walkReused () {
+        walker.walk(origin, visitor);
+        return walker.getDiscoveredCount();
+    }
+
+    @Benchmark
+    public int walkFresh () {
+        NetworkWalker fresh = new NetworkWalker();
+        fresh.walk(origin, visitor);
+        return fresh.getDiscoveredCount();
+    }
+
+    /**
+     * Returns the given number of nodes around the origin, nearest first, so the members form one connected blob.
+     */
+    private static LongOpenHashSet packedNodes (long origin, int count) {
+        LongOpenHashSet nodes = new LongOpenHashSet(count);
+        LongRingQueue queue = new LongRingQueue();
+
+        nodes.add(origin);
+        queue.add(origin);
+
+        while (nodes.size() < count && !queue.isEmpty()) {
+            long node = queue.remove();
+            int x = NetworkWalker.getX(node);
+            int y = NetworkWalker.getY(node);
+            int z = NetworkWalker.getZ(node);
+
+            long[] neighbors = new long[] {
+                NetworkWalker.pack(x - 1, y, z), NetworkWalker.pack(x + 1, y, z),
+                NetworkWalker.pack(x, y, z - 1), NetworkWalker.pack(x, y, z + 1),
+                NetworkWalker.pack(x, y - 1, z), NetworkWalker.pack(x, y + 1, z),
+            };
+
+            for (long neighbor : neighbors) {
+                if (nodes.size() < count && nodes.add(neighbor))
+                    queue.add(neighbor);
+            }
+        }
+
+        return nodes;
+    }
+}
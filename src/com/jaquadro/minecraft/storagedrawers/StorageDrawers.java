@@ -8,8 +8,12 @@ import com.jaquadro.minecraft.storagedrawers.capabilities.CapabilityDrawerAttrib
 import com.jaquadro.minecraft.storagedrawers.core.handlers.GuiHandler;
 import com.jaquadro.minecraft.storagedrawers.integration.LocalIntegrationRegistry;
 import com.jaquadro.minecraft.storagedrawers.network.BoolConfigUpdateMessage;
+import com.jaquadro.minecraft.storagedrawers.network.CountBatchMessage;
 import com.jaquadro.minecraft.storagedrawers.network.CountUpdateMessage;
+import com.jaquadro.minecraft.storagedrawers.network.DrawerDescriptionMessage;
+import com.jaquadro.minecraft.storagedrawers.network.DrawerSyncQueue;
 import com.jaquadro.minecraft.storagedrawers.security.SecurityRegistry;
+import com.jaquadro.minecraft.storagedrawers.util.CompactingTierGraph;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.client.FMLClientHandler;
 import net.minecraftforge.fml.client.event.ConfigChangedEvent;
@@ -17,14 +21,18 @@ import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.SidedProxy;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
+import net.minecraftforge.fml.common.event.FMLLoadCompleteEvent;
+import net.minecraftforge.fml.common.event.FMLModIdMappingEvent;
 import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLServerStartingEvent;
+import net.minecraftforge.fml.common.event.FMLServerStoppingEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.PlayerEvent.PlayerLoggedOutEvent;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.common.network.simpleimpl.SimpleNetworkWrapper;
 import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.oredict.OreDictionary;
 import org.apache.logging.log4j.Logger;
 
 import java.io.File;
@@ -46,6 +54,7 @@ public class StorageDrawers
     public static SimpleNetworkWrapper network;
     public static ConfigManager config;
     public static CompTierRegistry compRegistry;
+    public static CompactingTierGraph compTierGraph;
     public static OreDictRegistry oreDictRegistry;
 
     public static RenderRegistry renderRegistry;
@@ -72,12 +81,17 @@ public class StorageDrawers
 
         if (FMLCommonHandler.instance().getSide() == Side.CLIENT) {
             network.registerMessage(CountUpdateMessage.Handler.class, CountUpdateMessage.class, 1, Side.CLIENT);
+            network.registerMessage(CountBatchMessage.Handler.class, CountBatchMessage.class, 2, Side.CLIENT);
+            network.registerMessage(DrawerDescriptionMessage.Handler.class, DrawerDescriptionMessage.class, 3, Side.CLIENT);
         }
         else {
             network.registerMessage(CountUpdateMessage.HandlerStub.class, CountUpdateMessage.class, 1, Side.CLIENT);
+            network.registerMessage(CountBatchMessage.HandlerStub.class, CountBatchMessage.class, 2, Side.CLIENT);
+            network.registerMessage(DrawerDescriptionMessage.HandlerStub.class, DrawerDescriptionMessage.class, 3, Side.CLIENT);
         }
 
         compRegistry = new CompTierRegistry();
+        compTierGraph = new CompactingTierGraph(new File(event.getModConfigurationDirectory(), MOD_ID + "-tiers.dat"));
         oreDictRegistry = new OreDictRegistry();
         renderRegistry = new RenderRegistry();
         wailaRegistry = new WailaRegistry();
@@ -91,6 +105,7 @@ public class StorageDrawers
         NetworkRegistry.INSTANCE.registerGuiHandler(this, new GuiHandler());
         MinecraftForge.EVENT_BUS.register(proxy);
         MinecraftForge.EVENT_BUS.register(instance);
+        MinecraftForge.EVENT_BUS.register(new DrawerSyncQueue.EventHandler());
 
         LocalIntegrationRegistry.instance().init();
         compRegistry.initialize();
@@ -101,11 +116,28 @@ public class StorageDrawers
         LocalIntegrationRegistry.instance().postInit();
     }
 
+    @Mod.EventHandler
+    public void loadComplete (FMLLoadCompleteEvent event) {
+        oreDictRegistry.rebuild();
+        compTierGraph.build();
+    }
+
+    @Mod.EventHandler
+    public void remapped (FMLModIdMappingEvent event) {
+        compTierGraph.invalidate();
+        compTierGraph.build();
+    }
+
     @Mod.EventHandler
     public void serverStarted (FMLServerStartingEvent event) {
         event.registerServerCommand(new CommandDebug());
     }
 
+    @Mod.EventHandler
+    public void serverStopping (FMLServerStoppingEvent event) {
+        compTierGraph.flush();
+    }
+
     @SubscribeEvent
     public void onConfigChanged (ConfigChangedEvent.OnConfigChangedEvent event) {
         boolean preShiftValue = config.cache.invertShift;
@@ -116,6 +148,11 @@ public class StorageDrawers
         }
     }
 
+    @SubscribeEvent
+    public void onOreRegister (OreDictionary.OreRegisterEvent event) {
+        oreDictRegistry.invalidate();
+    }
+
     @SubscribeEvent
     public void onPlayerDisconnect(PlayerLoggedOutEvent event) {
         ConfigManager.serverPlayerConfigSettings.remove(event.player.getUniqueID());
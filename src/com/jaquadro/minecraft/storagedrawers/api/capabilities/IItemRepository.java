@@ -4,6 +4,7 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.util.NonNullList;
 
 import javax.annotation.Nonnull;
+import java.util.List;
 import java.util.function.Predicate;
 
 /**
@@ -62,6 +63,119 @@ public interface IItemRepository
         return extractItem(stack, amount, simulate, null);
     }
 
+    /**
+     * Inserts a batch of ItemStacks into the inventory.  Entries holding the same item are inserted together, in
+     * list order.  The default implementation simulates each item on its own, so different items may all be counted
+     * into the same empty space; implementations that track the space claimed by earlier items in a simulated batch
+     * can report the same remainders the real batch would.
+
+     * @param stacks    ItemStacks to insert.  The list and its stacks are not modified.
+     * @param simulate  If true, the insertion is only simulated
+     * @param predicate See interface notes about predicates.  Passing null specifies default matching.
+     * @return A list the same size as stacks, holding the remainder of each entry, or ItemStack.EMPTY for entries
+     * that were accepted entirely.
+     */
+    @Nonnull
+    default NonNullList<ItemStack> insertItems (@Nonnull List<ItemStack> stacks, boolean simulate, Predicate<ItemStack> predicate) {
+        NonNullList<ItemStack> remainders = NonNullList.withSize(stacks.size(), ItemStack.EMPTY);
+        boolean[] visited = new boolean[stacks.size()];
+
+        for (int i = 0; i < stacks.size(); i++) {
+            ItemStack stack = stacks.get(i);
+            if (visited[i] || stack.isEmpty())
+                continue;
+
+            long total = 0;
+            for (int j = i; j < stacks.size(); j++) {
+                ItemStack entry = stacks.get(j);
+                if (!visited[j] && ItemStack.areItemsEqual(stack, entry) && ItemStack.areItemStackTagsEqual(stack, entry)) {
+                    visited[j] = true;
+                    total += entry.getCount();
+                }
+            }
+
+            ItemStack request = stack.copy();
+            request.setCount((int)Math.min(total, Integer.MAX_VALUE));
+            long accepted = request.getCount() - insertItem(request, simulate, predicate).getCount();
+
+            for (int j = i; j < stacks.size(); j++) {
+                ItemStack entry = stacks.get(j);
+                if (j > i && (entry.isEmpty() || !ItemStack.areItemsEqual(stack, entry) || !ItemStack.areItemStackTagsEqual(stack, entry)))
+                    continue;
+
+                int taken = (int)Math.min(entry.getCount(), accepted);
+                accepted -= taken;
+                if (taken < entry.getCount()) {
+                    ItemStack remainder = entry.copy();
+                    remainder.setCount(entry.getCount() - taken);
+                    remainders.set(j, remainder);
+                }
+            }
+        }
+
+        return remainders;
+    }
+
+    @Nonnull
+    default NonNullList<ItemStack> insertItems (@Nonnull List<ItemStack> stacks, boolean simulate) {
+        return insertItems(stacks, simulate, null);
+    }
+
+    /**
+     * Tries to extract a batch of items from the inventory.  Requests for the same item are served together, in
+     * list order, so earlier requests are satisfied first when there is not enough to go around.
+
+     * @param requests  The items and amounts to extract.
+     * @param simulate  If true, the extraction is only simulated
+     * @param predicate See interface notes about predicates.  Passing null specifies default matching.
+     * @return A list the same size as requests, holding the ItemStack extracted for each entry, or ItemStack.EMPTY
+     * for entries that received nothing.
+     */
+    @Nonnull
+    default NonNullList<ItemStack> extractItems (@Nonnull List<ItemRequest> requests, boolean simulate, Predicate<ItemStack> predicate) {
+        NonNullList<ItemStack> results = NonNullList.withSize(requests.size(), ItemStack.EMPTY);
+        boolean[] visited = new boolean[requests.size()];
+
+        for (int i = 0; i < requests.size(); i++) {
+            ItemStack stack = requests.get(i).itemPrototype;
+            if (visited[i] || stack.isEmpty())
+                continue;
+
+            long total = 0;
+            for (int j = i; j < requests.size(); j++) {
+                ItemRequest entry = requests.get(j);
+                if (!visited[j] && ItemStack.areItemsEqual(stack, entry.itemPrototype) && ItemStack.areItemStackTagsEqual(stack, entry.itemPrototype)) {
+                    visited[j] = true;
+                    total += entry.amount;
+                }
+            }
+
+            ItemStack extracted = extractItem(stack, (int)Math.min(total, Integer.MAX_VALUE), simulate, predicate);
+            long available = extracted.getCount();
+
+            for (int j = i; j < requests.size() && available > 0; j++) {
+                ItemRequest entry = requests.get(j);
+                if (j > i && (entry.itemPrototype.isEmpty() || !ItemStack.areItemsEqual(stack, entry.itemPrototype) || !ItemStack.areItemStackTagsEqual(stack, entry.itemPrototype)))
+                    continue;
+
+                int taken = (int)Math.min(entry.amount, available);
+                available -= taken;
+                if (taken > 0) {
+                    ItemStack result = extracted.copy();
+                    result.setCount(taken);
+                    results.set(j, result);
+                }
+            }
+        }
+
+        return results;
+    }
+
+    @Nonnull
+    default NonNullList<ItemStack> extractItems (@Nonnull List<ItemRequest> requests, boolean simulate) {
+        return extractItems(requests, simulate, null);
+    }
+
     /**
      * Gets the number of items matching the given ItemStack stored by the inventory.
 
@@ -134,6 +248,23 @@ public interface IItemRepository
         }
     }
 
+    /**
+     * A request to extract an amount of an item, used by batch extraction.
+     *
+     * The stack size of itemPrototype is ignored.
+     */
+    class ItemRequest
+    {
+        @Nonnull
+        public final ItemStack itemPrototype;
+        public final int amount;
+
+        public ItemRequest (@Nonnull ItemStack itemPrototype, int amount) {
+            this.itemPrototype = itemPrototype;
+            this.amount = amount;
+        }
+    }
+
     /**
      * A variant of the standard Predicate interface that when passed to IItemRepository functions, will ask the
      * internal default predicate to be tested in addition to the custom predicate.  An IItemRepository function
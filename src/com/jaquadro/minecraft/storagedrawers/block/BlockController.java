@@ -8,6 +8,7 @@ import com.jaquadro.minecraft.storagedrawers.block.tile.TileEntityController;
 import com.jaquadro.minecraft.storagedrawers.core.ModCreativeTabs;
 import com.jaquadro.minecraft.storagedrawers.core.ModItems;
 import com.jaquadro.minecraft.storagedrawers.item.ItemPersonalKey;
+import com.jaquadro.minecraft.storagedrawers.storage.network.ControllerTracker;
 import net.minecraft.block.BlockContainer;
 import net.minecraft.block.SoundType;
 import net.minecraft.block.material.Material;
@@ -89,9 +90,17 @@ public class BlockController extends BlockContainer implements INetworked
                 facing = EnumFacing.WEST;
 
             world.setBlockState(pos, state.withProperty(FACING, facing), 2);
+            ControllerTracker.notifyNodeAdded(world, pos);
         }
     }
 
+    @Override
+    public void breakBlock (World world, BlockPos pos, IBlockState state) {
+        ControllerTracker.notifyNodeRemoved(world, pos);
+
+        super.breakBlock(world, pos, state);
+    }
+
     @Override
     public IBlockState getStateForPlacement (World world, BlockPos pos, EnumFacing facing, float hitX, float hitY, float hitZ, int meta, EntityLivingBase placer, EnumHand hand) {
         return getDefaultState().withProperty(FACING, placer.getHorizontalFacing().getOpposite());
@@ -183,9 +192,9 @@ public class BlockController extends BlockContainer implements INetworked
         if (te == null)
             return;
 
-        te.updateCache();
+        te.refreshCache();
 
-        world.scheduleUpdate(pos, this, this.tickRate(world));
+        world.scheduleUpdate(pos, this, te.isRescanPending() ? 1 : this.tickRate(world));
     }
 
     @Override
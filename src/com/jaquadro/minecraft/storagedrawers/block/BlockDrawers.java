@@ -21,6 +21,7 @@ import com.jaquadro.minecraft.storagedrawers.inventory.DrawerInventoryHelper;
 import com.jaquadro.minecraft.storagedrawers.core.handlers.GuiHandler;
 import com.jaquadro.minecraft.storagedrawers.item.*;
 import com.jaquadro.minecraft.storagedrawers.security.SecurityManager;
+import com.jaquadro.minecraft.storagedrawers.storage.network.ControllerTracker;
 import net.minecraft.block.*;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.properties.*;
@@ -58,6 +59,7 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 public abstract class BlockDrawers extends BlockContainer implements INetworked
 {
@@ -200,6 +202,8 @@ public abstract class BlockDrawers extends BlockContainer implements INetworked
             tile.markDirty();
 
             world.setBlockState(pos, state.withProperty(FACING, facing));
+
+            ControllerTracker.notifyNodeAdded(world, pos);
         }
 
         super.onBlockAdded(world, pos, state);
@@ -511,6 +515,8 @@ public abstract class BlockDrawers extends BlockContainer implements INetworked
                 DrawerInventoryHelper.dropInventoryItems(world, pos, tile.getGroup());
         }
 
+        ControllerTracker.notifyNodeRemoved(world, pos);
+
         super.breakBlock(world, pos, state);
     }
 
@@ -610,6 +616,16 @@ public abstract class BlockDrawers extends BlockContainer implements INetworked
         return super.addDestroyEffects(world, pos, manager);
     }
 
+    @Override
+    public void updateTick (World world, BlockPos pos, IBlockState state, Random rand) {
+        if (world.isRemote)
+            return;
+
+        TileEntityDrawers tile = getTileEntity(world, pos);
+        if (tile != null)
+            tile.flushRedstoneUpdate();
+    }
+
     @Override
     @SuppressWarnings("deprecation")
     public boolean canProvidePower (IBlockState state) {
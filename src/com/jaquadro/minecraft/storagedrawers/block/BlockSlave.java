@@ -3,6 +3,7 @@ package com.jaquadro.minecraft.storagedrawers.block;
 import com.jaquadro.minecraft.storagedrawers.api.storage.INetworked;
 import com.jaquadro.minecraft.storagedrawers.block.tile.TileEntitySlave;
 import com.jaquadro.minecraft.storagedrawers.core.ModCreativeTabs;
+import com.jaquadro.minecraft.storagedrawers.storage.network.ControllerTracker;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockContainer;
 import net.minecraft.block.SoundType;
@@ -32,6 +33,20 @@ public class BlockSlave extends BlockContainer implements INetworked
         return EnumBlockRenderType.MODEL;
     }
 
+    @Override
+    public void onBlockAdded (World world, BlockPos pos, IBlockState state) {
+        super.onBlockAdded(world, pos, state);
+
+        ControllerTracker.notifyNodeAdded(world, pos);
+    }
+
+    @Override
+    public void breakBlock (World world, BlockPos pos, IBlockState state) {
+        ControllerTracker.notifyNodeRemoved(world, pos);
+
+        super.breakBlock(world, pos, state);
+    }
+
     public void toggle (World world, BlockPos pos, EntityPlayer player, EnumKeyType keyType) {
         TileEntitySlave tile = getTileEntity(world, pos);
         if (tile == null)
@@ -206,6 +206,8 @@ public class BlockStandardDrawers extends BlockDrawers
 
     @Override
     public void updateTick (World worldIn, BlockPos pos, IBlockState state, Random rand) {
+        super.updateTick(worldIn, pos, state, rand);
+
         TileEntity tile = worldIn.getTileEntity(pos);
         if (tile instanceof TileEntityDrawersStandard.Legacy)
             ((TileEntityDrawersStandard.Legacy) tile).replaceWithCurrent();
@@ -2,6 +2,7 @@ package com.jaquadro.minecraft.storagedrawers.block;
 
 import com.jaquadro.minecraft.storagedrawers.api.storage.INetworked;
 import com.jaquadro.minecraft.storagedrawers.core.ModCreativeTabs;
+import com.jaquadro.minecraft.storagedrawers.storage.network.ControllerTracker;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockPlanks;
 import net.minecraft.block.SoundType;
@@ -55,6 +56,20 @@ public class BlockTrim extends Block implements INetworked
         setDefaultState(blockState.getBaseState().withProperty(VARIANT, BlockPlanks.EnumType.OAK));
     }
 
+    @Override
+    public void onBlockAdded (World world, BlockPos pos, IBlockState state) {
+        super.onBlockAdded(world, pos, state);
+
+        ControllerTracker.notifyNodeAdded(world, pos);
+    }
+
+    @Override
+    public void breakBlock (World world, BlockPos pos, IBlockState state) {
+        ControllerTracker.notifyNodeRemoved(world, pos);
+
+        super.breakBlock(world, pos, state);
+    }
+
     @Override
     public boolean removedByPlayer (IBlockState state, World world, BlockPos pos, EntityPlayer player, boolean willHarvest) {
         return willHarvest || super.removedByPlayer(state, world, pos, player, true);
@@ -12,7 +12,10 @@ import com.jaquadro.minecraft.storagedrawers.capabilities.DrawerItemRepository;
 import com.jaquadro.minecraft.storagedrawers.core.ModBlocks;
 import com.jaquadro.minecraft.storagedrawers.capabilities.DrawerItemHandler;
 import com.jaquadro.minecraft.storagedrawers.security.SecurityManager;
-import com.jaquadro.minecraft.storagedrawers.util.ItemMetaCollectionRegistry;
+import com.jaquadro.minecraft.storagedrawers.storage.network.ControllerTracker;
+import com.jaquadro.minecraft.storagedrawers.storage.network.DrawerNetwork;
+import com.jaquadro.minecraft.storagedrawers.storage.network.NetworkWalker;
+import com.jaquadro.minecraft.storagedrawers.util.ItemIdentity;
 import com.mojang.authlib.GameProfile;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
@@ -23,17 +26,20 @@ import net.minecraft.network.NetworkManager;
 import net.minecraft.network.play.server.SPacketUpdateTileEntity;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.util.NonNullList;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.CapabilityInject;
 import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.items.IItemHandler;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 public class TileEntityController extends TileEntity implements IDrawerGroup
 {
@@ -50,6 +56,13 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
     private static final int PRI_LOCKED_EMPTY = 5;
     private static final int PRI_DISABLED = 6;
 
+    private static final int VISIT_ACCEPTED = 0;
+    private static final int VISIT_REJECTED = 1;
+    private static final int VISIT_UNLOADED = 2;
+    private static final int VISIT_TRUNCATED = 3;
+
+    private static final int TOPOLOGY_VERSION = 1;
+
     private static class StorageRecord
     {
         public IDrawerGroup storage;
@@ -57,9 +70,11 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
         public int invStorageSize;
         public int drawerStorageSize;
         public int distance = Integer.MAX_VALUE;
+        public List<SlotRecord> slotRecords = new ArrayList<>();
 
         public void clear () {
             storage = null;
+            slotRecords.clear();
             mark = false;
             invStorageSize = 0;
             drawerStorageSize = 0;
@@ -72,14 +87,22 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
         public BlockPos coord;
         public IDrawerGroup group;
         public int slot;
+        public boolean tracked;
 
-        public int index;
+        public int index = -1;
         public int priority;
+        public ItemIdentity identity;
+        public Set<SlotRecord> slotSet;
 
-        public SlotRecord (IDrawerGroup group, BlockPos coord, int slot) {
+        public int storedCount;
+        public int remainingCapacity;
+        public int maxCapacity;
+
+        public SlotRecord (IDrawerGroup group, BlockPos coord, int slot, boolean tracked) {
             this.group = group;
             this.coord = coord;
             this.slot = slot;
+            this.tracked = tracked;
         }
 
         @Override
@@ -97,9 +120,20 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
         }
     }
 
-    private Queue<BlockPos> searchQueue = new LinkedList<>();
-    private Set<BlockPos> searchDiscovered = new HashSet<>();
+    private static class SlotBucket
+    {
+        public final Set<SlotRecord> records = new TreeSet<>();
+
+        public long storedCount;
+        public long remainingCapacity;
+        public long maxCapacity;
+    }
+
+    private final NetworkWalker searchWalker = new NetworkWalker();
+    private final NetworkWalker rescanWalker = new NetworkWalker();
+    private final BlockPos.MutableBlockPos searchPos = new BlockPos.MutableBlockPos();
     private Comparator<SlotRecord> slotRecordComparator = (o1, o2) -> o1.priority - o2.priority;
+    private Comparator<SlotRecord> slotIndexComparator = (o1, o2) -> o1.index - o2.index;
 
     private IDrawerAttributes getAttributes (Object obj) {
         IDrawerAttributes attrs = null;
@@ -145,14 +179,38 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
         return PRI_NORMAL;
     }
 
-    private Map<BlockPos, StorageRecord> storage = new HashMap<>();
+    private Map<BlockPos, StorageRecord> storage = new LinkedHashMap<>();
     protected List<SlotRecord> drawerSlotList = new ArrayList<>();
 
-    private ItemMetaCollectionRegistry<SlotRecord> drawerPrimaryLookup = new ItemMetaCollectionRegistry<>();
+    private Map<ItemIdentity, SlotBucket> drawerPrimaryLookup = new HashMap<>();
+    private Set<SlotRecord> drawerConvertibleSlots = new TreeSet<>(slotIndexComparator);
+    private Set<SlotRecord> drawerEmptySlots = new TreeSet<>(slotIndexComparator);
+    private Set<SlotRecord> drawerLockedEmptySlots = new TreeSet<>(slotIndexComparator);
+    private Set<SlotRecord> drawerUntrackedSlots = new TreeSet<>(slotIndexComparator);
+    private Set<BlockPos> pendingLookupUpdates = new HashSet<>();
+    private boolean slotOrderDirty;
+    private int lookupDepth;
 
     protected int[] drawerSlots = new int[0];
     private int range;
 
+    private boolean topologyInvalid = true;
+    private boolean topologyTruncated;
+    private Set<BlockPos> unloadedFrontier = new HashSet<>();
+
+    private Map<BlockPos, StorageRecord> rescanStorage;
+    private List<SlotRecord> rescanSlotList;
+    private Set<BlockPos> rescanTouched = new LinkedHashSet<>();
+    private Set<BlockPos> rescanUnloaded = new HashSet<>();
+    private boolean rescanTruncated;
+
+    private DrawerNetwork network;
+    private DrawerNetwork sharedNetwork;
+
+    private int[] snapshotNodes;
+    private int[] snapshotSlots;
+    private int snapshotStamp;
+
     private long lastUpdateTime;
     private long lastClickTime;
     private UUID lastClickUUID;
@@ -166,6 +224,13 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
         StorageDrawers.log.info("  Range: " + range + " blocks");
         StorageDrawers.log.info("  Stored records: " + storage.size() + ", slot list: " + drawerSlots.length);
         StorageDrawers.log.info("  Ticks since last update: " + (getWorld().getTotalWorldTime() - lastUpdateTime));
+        StorageDrawers.log.info("  Topology valid: " + !topologyInvalid);
+        StorageDrawers.log.info("  Unloaded neighbours: " + unloadedFrontier.size());
+        StorageDrawers.log.info("  Rescan pending: " + isRescanPending());
+        if (sharedNetwork != null)
+            StorageDrawers.log.info("  Following network of controller at " + sharedNetwork.getOwner().getPos());
+        else if (network != null)
+            StorageDrawers.log.info("  Shared with " + network.getFollowerCount() + " other controllers");
     }
 
     @Override
@@ -174,6 +239,24 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
 
         if (!getWorld().isUpdateScheduled(getPos(), ModBlocks.controller))
             getWorld().scheduleBlockUpdate(getPos(), ModBlocks.controller, 1, 0);
+
+        ControllerTracker.register(this);
+    }
+
+    @Override
+    public void invalidate () {
+        super.invalidate();
+        ControllerTracker.unregister(this);
+        dissolveNetwork();
+        leaveSharedNetwork();
+    }
+
+    @Override
+    public void onChunkUnload () {
+        super.onChunkUnload();
+        ControllerTracker.unregister(this);
+        dissolveNetwork();
+        leaveSharedNetwork();
     }
 
     @Override
@@ -194,13 +277,25 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
             }
         }
         else {
-            for (int i = 0, n = player.inventory.getSizeInventory(); i < n; i++) {
-                ItemStack subStack = player.inventory.getStackInSlot(i);
-                if (!subStack.isEmpty()) {
-                    count += insertItems(subStack, player.getGameProfile());
-                    if (subStack.getCount() == 0)
-                        player.inventory.setInventorySlotContents(i, ItemStack.EMPTY);
-                }
+            int size = player.inventory.getSizeInventory();
+            List<ItemStack> stacks = new ArrayList<>(size);
+            for (int i = 0; i < size; i++)
+                stacks.add(player.inventory.getStackInSlot(i));
+
+            // Dump the whole inventory as one batch, so each distinct item is resolved against the index once
+            NonNullList<ItemStack> remainders = insertItems(stacks, player.getGameProfile());
+            for (int i = 0; i < size; i++) {
+                ItemStack subStack = stacks.get(i);
+                if (subStack.isEmpty())
+                    continue;
+
+                int remainder = remainders.get(i).getCount();
+                count += subStack.getCount() - remainder;
+
+                if (remainder == 0)
+                    player.inventory.setInventorySlotContents(i, ItemStack.EMPTY);
+                else
+                    subStack.setCount(remainder);
             }
 
             if (count > 0)
@@ -214,6 +309,10 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
     }
 
     protected int insertItems (@Nonnull ItemStack stack, GameProfile profile) {
+        TileEntityController owner = getNetworkOwner();
+        if (owner != this)
+            return owner.insertItems(stack, profile);
+
         int remainder = new ProtectedItemRepository(this, profile).insertItem(stack, false).getCount();
         int added = stack.getCount() - remainder;
 
@@ -221,7 +320,21 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
         return added;
     }
 
+    protected NonNullList<ItemStack> insertItems (@Nonnull List<ItemStack> stacks, GameProfile profile) {
+        TileEntityController owner = getNetworkOwner();
+        if (owner != this)
+            return owner.insertItems(stacks, profile);
+
+        return new ProtectedItemRepository(this, profile).insertItems(stacks, false);
+    }
+
     public void toggleProtection (GameProfile profile, ISecurityProvider provider) {
+        TileEntityController owner = getNetworkOwner();
+        if (owner != this) {
+            owner.toggleProtection(profile, provider);
+            return;
+        }
+
         IProtectable template = null;
         UUID state = null;
 
@@ -252,6 +365,12 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
     }
 
     public void toggleShroud (GameProfile profile) {
+        TileEntityController owner = getNetworkOwner();
+        if (owner != this) {
+            owner.toggleShroud(profile);
+            return;
+        }
+
         Boolean template = null;
         boolean state = false;
 
@@ -278,6 +397,12 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
     }
 
     public void toggleQuantified (GameProfile profile) {
+        TileEntityController owner = getNetworkOwner();
+        if (owner != this) {
+            owner.toggleQuantified(profile);
+            return;
+        }
+
         Boolean template = null;
         boolean state = false;
 
@@ -304,6 +429,12 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
     }
 
     public void toggleLock (EnumSet<LockAttribute> attributes, LockAttribute key, GameProfile profile) {
+        TileEntityController owner = getNetworkOwner();
+        if (owner != this) {
+            owner.toggleLock(attributes, key, profile);
+            return;
+        }
+
         Boolean template = null;
         boolean state = false;
 
@@ -334,9 +465,14 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
     protected void resetCache () {
         storage.clear();
         drawerSlotList.clear();
+        unloadedFrontier.clear();
     }
 
     public boolean isValidSlave (BlockPos coord) {
+        TileEntityController owner = getNetworkOwner();
+        if (owner != this)
+            return owner.isValidSlave(coord);
+
         StorageRecord record = storage.get(coord);
         if (record == null || !record.mark)
             return false;
@@ -344,23 +480,580 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
         return record.storage == null;
     }
 
+    private boolean isIncremental () {
+        return StorageDrawers.config.cache.controllerIncrementalTopology;
+    }
+
+    private int getScanBudget () {
+        return StorageDrawers.config.cache.controllerScanBudget;
+    }
+
+    public boolean isRescanPending () {
+        return rescanStorage != null;
+    }
+
+    public void refreshCache () {
+        if (sharedNetwork != null) {
+            if (sharedNetwork.covers(getPos(), range))
+                return;
+            leaveSharedNetwork();
+        }
+
+        if (isRescanPending()) {
+            continueRescan();
+            return;
+        }
+
+        if (topologyInvalid && restoreSnapshot()) {
+            if (getScanBudget() > 0)
+                beginRescan();
+            return;
+        }
+
+        if (!isIncremental() || topologyInvalid) {
+            if (joinSharedNetwork())
+                return;
+
+            if (getScanBudget() <= 0)
+                updateCache();
+            else {
+                beginRescan();
+                continueRescan();
+            }
+            return;
+        }
+
+        // A controller without a network of its own keeps looking for one to follow, since the owner of its
+        // component may have published only after this controller's last walk.
+        if (network == null && joinSharedNetwork())
+            return;
+
+        checkUnloadedFrontier();
+
+        // The incremental index is already current; only the priority order may need catching up.  Once the gaps
+        // left by removed drawers outnumber the live slots, the slot list is compacted instead.
+        lastUpdateTime = getWorld().getTotalWorldTime();
+        if (slotOrderDirty) {
+            if (countNullEntries(drawerSlotList) * 2 > drawerSlotList.size())
+                rebuildSlotIndex(drawerSlots.length, false);
+            else {
+                drawerSlots = orderSlotRecords(drawerSlotList);
+                slotOrderDirty = false;
+            }
+        }
+    }
+
     public void updateCache () {
+        cancelRescan();
+        snapshotNodes = null;
+        snapshotSlots = null;
+
         lastUpdateTime = getWorld().getTotalWorldTime();
         int preCount = drawerSlots.length;
+        Set<BlockPos> preNodes = new HashSet<>(storage.keySet());
 
+        topologyInvalid = false;
+        topologyTruncated = false;
         resetCache();
 
         populateNodes(getPos());
 
+        rebuildSlotIndex(preCount, !preNodes.equals(storage.keySet()));
+    }
+
+    // A rescan builds a new storage map and slot list over as many ticks as its budget requires.  The live network
+    // keeps serving requests until the finished snapshot replaces it in a single step.
+
+    private void beginRescan () {
+        rescanStorage = new LinkedHashMap<>();
+        rescanSlotList = new ArrayList<>();
+        rescanTouched.clear();
+        rescanUnloaded.clear();
+        rescanTruncated = false;
+
+        rescanWalker.begin(getPos().toLong());
+    }
+
+    private void continueRescan () {
+        BlockPos root = getPos();
+        boolean finished = rescanWalker.step(node -> {
+            int result = visitNode(root, node, rescanStorage, rescanSlotList);
+            if (result == VISIT_UNLOADED)
+                rescanUnloaded.add(searchPos.toImmutable());
+            else if (result == VISIT_TRUNCATED)
+                rescanTruncated = true;
+
+            return result == VISIT_ACCEPTED;
+        }, getScanBudget());
+
+        if (!finished)
+            return;
+
+        lastUpdateTime = getWorld().getTotalWorldTime();
+        int preCount = drawerSlots.length;
+        boolean changed = !storage.keySet().equals(rescanStorage.keySet()) || topologyTruncated != rescanTruncated;
+
+        storage = rescanStorage;
+        drawerSlotList = rescanSlotList;
+        topologyInvalid = false;
+        topologyTruncated = rescanTruncated;
+        unloadedFrontier = new HashSet<>(rescanUnloaded);
+
+        List<BlockPos> touched = new ArrayList<>(rescanTouched);
+        cancelRescan();
+
+        rebuildSlotIndex(preCount, changed);
+
+        // Placements and removals the walk had already passed are replayed against the new snapshot.
+
+        for (BlockPos coord : touched) {
+            if (getWorld().getBlockState(coord).getBlock() instanceof INetworked)
+                onNetworkNodeAdded(coord);
+            else
+                onNetworkNodeRemoved(coord);
+        }
+    }
+
+    // The snapshot written with the controller lists every network node in discovery order along with its slot count.
+    // On load it is trusted only if every recorded position still holds the same kind of node.  A budgeted rescan
+    // then runs in the background to pick up anything attached while the controller was unloaded.
+
+    private int getTopologyStamp () {
+        return 31 * (31 * TOPOLOGY_VERSION + range) + getPos().hashCode();
+    }
+
+    private NBTTagCompound writeTopology () {
+        int[] nodes = new int[storage.size() * 2];
+        int[] slots = new int[storage.size()];
+
+        int i = 0;
+        for (Map.Entry<BlockPos, StorageRecord> entry : storage.entrySet()) {
+            long node = entry.getKey().toLong();
+            nodes[i * 2] = (int)(node >>> 32);
+            nodes[i * 2 + 1] = (int)node;
+            slots[i] = (entry.getValue().storage != null) ? entry.getValue().drawerStorageSize : 0;
+            i++;
+        }
+
+        NBTTagCompound tag = new NBTTagCompound();
+        tag.setInteger("Stamp", getTopologyStamp());
+        tag.setIntArray("Nodes", nodes);
+        tag.setIntArray("Slots", slots);
+
+        return tag;
+    }
+
+    private void readTopology (NBTTagCompound tag) {
+        snapshotStamp = tag.getInteger("Stamp");
+        snapshotNodes = tag.getIntArray("Nodes");
+        snapshotSlots = tag.getIntArray("Slots");
+    }
+
+    private boolean restoreSnapshot () {
+        int[] nodes = snapshotNodes;
+        int[] slots = snapshotSlots;
+
+        snapshotNodes = null;
+        snapshotSlots = null;
+
+        if (nodes == null || slots == null || nodes.length != slots.length * 2)
+            return false;
+        if (snapshotStamp != getTopologyStamp())
+            return false;
+
+        Map<BlockPos, StorageRecord> nodeMap = new LinkedHashMap<>();
+        List<SlotRecord> slotList = new ArrayList<>();
+
+        for (int i = 0; i < slots.length; i++) {
+            long node = ((long)nodes[i * 2] << 32) | (nodes[i * 2 + 1] & 0xFFFFFFFFL);
+            if (visitNode(getPos(), node, nodeMap, slotList) != VISIT_ACCEPTED)
+                return false;
+
+            StorageRecord record = nodeMap.get(searchPos);
+            int slotCount = (record.storage != null) ? record.drawerStorageSize : 0;
+            if (slotCount != slots[i])
+                return false;
+        }
+
+        if (!nodeMap.containsKey(getPos()))
+            return false;
+
+        lastUpdateTime = getWorld().getTotalWorldTime();
+        int preCount = drawerSlots.length;
+
+        storage = nodeMap;
+        drawerSlotList = slotList;
+        topologyInvalid = false;
+        topologyTruncated = true;
+        unloadedFrontier.clear();
+
+        rebuildSlotIndex(preCount, false);
+
+        return true;
+    }
+
+    // Controllers inside a component that one controller has already discovered follow that controller's network
+    // rather than keeping their own.  Sharing requires the owner's walk to have reached the whole component, and the
+    // component to fit inside the follower's own range, so both would discover exactly the same nodes.
+
+    public TileEntityController getNetworkOwner () {
+        if (sharedNetwork != null && sharedNetwork.isValid())
+            return sharedNetwork.getOwner();
+
+        return this;
+    }
+
+    public boolean isNetworkMember (BlockPos coord) {
+        return isNodeMarked(coord);
+    }
+
+    public void onSharedNetworkChanged () {
+        if (sharedNetwork == null || sharedNetwork.covers(getPos(), range))
+            return;
+
+        leaveSharedNetwork();
+        if (!isInvalid() && getWorld() != null && !getWorld().isRemote)
+            updateCache();
+    }
+
+    private boolean joinSharedNetwork () {
+        if (network != null && network.hasFollowers())
+            return false;
+
+        DrawerNetwork candidate = DrawerNetwork.find(getWorld(), getPos(), range);
+        if (candidate == null || candidate == network)
+            return false;
+
+        dissolveNetwork();
+        cancelRescan();
+
+        lastUpdateTime = getWorld().getTotalWorldTime();
+        int preCount = drawerSlots.length;
+
+        resetCache();
+        topologyInvalid = false;
+        sharedNetwork = candidate;
+        sharedNetwork.addFollower(this);
+
+        rebuildSlotIndex(preCount, true);
+
+        return true;
+    }
+
+    private void leaveSharedNetwork () {
+        if (sharedNetwork == null)
+            return;
+
+        sharedNetwork.removeFollower(this);
+        sharedNetwork = null;
+        topologyInvalid = true;
+    }
+
+    private void publishNetwork () {
+        if (sharedNetwork != null || getWorld() == null || getWorld().isRemote)
+            return;
+
+        if (topologyInvalid || topologyTruncated || !unloadedFrontier.isEmpty() || storage.isEmpty()) {
+            dissolveNetwork();
+            return;
+        }
+
+        long key = Long.MAX_VALUE;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+        for (BlockPos coord : storage.keySet()) {
+            key = Math.min(key, coord.toLong());
+            minX = Math.min(minX, coord.getX());
+            minY = Math.min(minY, coord.getY());
+            minZ = Math.min(minZ, coord.getZ());
+            maxX = Math.max(maxX, coord.getX());
+            maxY = Math.max(maxY, coord.getY());
+            maxZ = Math.max(maxZ, coord.getZ());
+        }
+
+        if (network == null)
+            network = new DrawerNetwork(this);
+
+        // Another controller finished its walk of the same component first, so follow its network instead
+        if (!network.publish(getWorld(), key, new BlockPos(minX, minY, minZ), new BlockPos(maxX, maxY, maxZ))) {
+            network = null;
+            joinSharedNetwork();
+        }
+    }
+
+    private void dissolveNetwork () {
+        if (network == null)
+            return;
+
+        DrawerNetwork oldNetwork = network;
+        network = null;
+        oldNetwork.dissolve();
+    }
+
+    private void cancelRescan () {
+        rescanStorage = null;
+        rescanSlotList = null;
+        rescanTouched.clear();
+        rescanUnloaded.clear();
+    }
+
+    private void recordRescanEvent (BlockPos coord) {
+        if (isRescanPending() && rescanWalker.isDiscovered(coord.toLong()))
+            rescanTouched.add(coord);
+    }
+
+    public void onNetworkNodeAdded (BlockPos coord) {
+        if (!isIncremental() || isInvalid())
+            return;
+
+        recordRescanEvent(coord);
+
+        if (topologyInvalid)
+            return;
+        if (getDistance(coord) > range) {
+            if (!topologyTruncated && isAdjacentToNetwork(coord)) {
+                topologyTruncated = true;
+                dissolveNetwork();
+            }
+            return;
+        }
+
+        int preSize = drawerSlotList.size();
+
+        StorageRecord record = storage.get(coord);
+        if (record != null && record.mark)
+            updateRecordInfo(coord, record, getWorld().getTileEntity(coord), drawerSlotList);
+        else if (isAdjacentToNetwork(coord))
+            populateNodes(getPos(), coord);
+        else
+            return;
+
+        indexAppendedSlotRecords(preSize);
+        onTopologyUpdated();
+    }
+
+    public void onNetworkNodeRemoved (BlockPos coord) {
+        if (!isIncremental() || isInvalid())
+            return;
+
+        recordRescanEvent(coord);
+
+        if (topologyInvalid)
+            return;
+        if (coord.equals(getPos()))
+            return;
+
+        StorageRecord record = storage.get(coord);
+        if (record == null || !record.mark)
+            return;
+
+        if (isCutVertex(coord)) {
+            updateCache();
+            return;
+        }
+
+        // The removed slots are left as gaps in the slot list, and dropped from the slot order by the next refresh
+        if (record.storage != null) {
+            clearRecordInfo(coord, record, drawerSlotList);
+            slotOrderDirty = true;
+        }
+        storage.remove(coord);
+
+        onTopologyUpdated();
+    }
+
+    public void onNetworkNodeChanged (BlockPos coord) {
+        if (isInvalid())
+            return;
+
+        StorageRecord record = storage.get(coord);
+        if (record == null || record.storage == null)
+            return;
+
+        // Drawers can change their contents in the middle of a repository operation that is iterating the
+        // lookup, so updates are held back until the outermost operation completes.
+
+        if (lookupDepth > 0) {
+            pendingLookupUpdates.add(coord);
+            return;
+        }
+
+        // A record's priority orders it within its bucket, so it is only changed while the record is out of the index
+        for (SlotRecord slotRecord : record.slotRecords) {
+            unindexSlotRecord(slotRecord);
+
+            int priority = getSlotPriority(slotRecord);
+            if (priority != slotRecord.priority) {
+                slotRecord.priority = priority;
+                slotOrderDirty = true;
+            }
+
+            indexSlotRecord(slotRecord);
+        }
+    }
+
+    public void onNetworkNodeAmountChanged (BlockPos coord) {
+        if (isInvalid())
+            return;
+
+        StorageRecord record = storage.get(coord);
+        if (record == null || record.storage == null)
+            return;
+
+        for (SlotRecord slotRecord : record.slotRecords) {
+            IDrawerGroup group = getGroupForSlotRecord(slotRecord);
+            if (group != null)
+                updateSlotStats(slotRecord, group.getDrawer(slotRecord.slot));
+        }
+    }
+
+    private void beginLookup () {
+        lookupDepth++;
+    }
+
+    private void endLookup () {
+        if (--lookupDepth > 0 || pendingLookupUpdates.isEmpty())
+            return;
+
+        List<BlockPos> pending = new ArrayList<>(pendingLookupUpdates);
+        pendingLookupUpdates.clear();
+
+        for (BlockPos coord : pending)
+            onNetworkNodeChanged(coord);
+    }
+
+    private void rebuildSlotIndex (int preCount, boolean topologyChanged) {
         flattenLists();
         drawerSlots = sortSlotRecords(drawerSlotList);
 
-        rebuildPrimaryLookup(drawerPrimaryLookup, drawerSlotList);
+        rebuildSlotLookups(drawerSlotList);
 
-        if (preCount != drawerSlots.length && (preCount == 0 || drawerSlots.length == 0)) {
+        if (topologyChanged || (preCount != drawerSlots.length && (preCount == 0 || drawerSlots.length == 0))) {
             if (!getWorld().isRemote)
                 markDirty();
         }
+
+        if (topologyChanged || network == null || topologyInvalid)
+            publishNetwork();
+    }
+
+    // Indexes the slot records appended to the slot list since it held the given number of entries.  They join the
+    // end of the slot order, and are moved into priority order by the next refresh.
+    private void indexAppendedSlotRecords (int from) {
+        int[] order = Arrays.copyOf(drawerSlots, drawerSlots.length + drawerSlotList.size() - from);
+        int count = drawerSlots.length;
+
+        for (int i = from, n = drawerSlotList.size(); i < n; i++) {
+            SlotRecord record = drawerSlotList.get(i);
+            if (record == null)
+                continue;
+
+            record.index = i;
+            record.priority = getSlotPriority(record);
+            indexSlotRecord(record);
+
+            order[count++] = i;
+            slotOrderDirty = true;
+        }
+
+        drawerSlots = (count == order.length) ? order : Arrays.copyOf(order, count);
+    }
+
+    private void onTopologyUpdated () {
+        if (!getWorld().isRemote)
+            markDirty();
+
+        publishNetwork();
+    }
+
+    // The walk only visits the neighbours of nodes it has accepted, so an unloaded position it reaches is always
+    // adjacent to the network.  It is remembered rather than invalidating the topology, and joined to the network
+    // once its chunk loads.  The network is not shared while any such position is outstanding.
+
+    private void checkUnloadedFrontier () {
+        if (unloadedFrontier.isEmpty())
+            return;
+
+        List<BlockPos> loaded = new ArrayList<>();
+        for (BlockPos coord : unloadedFrontier) {
+            if (getWorld().isBlockLoaded(coord, false))
+                loaded.add(coord);
+        }
+
+        if (loaded.isEmpty())
+            return;
+
+        unloadedFrontier.removeAll(loaded);
+        for (BlockPos coord : loaded) {
+            if (!isNodeMarked(coord) && getWorld().getBlockState(coord).getBlock() instanceof INetworked)
+                onNetworkNodeAdded(coord);
+        }
+
+        if (unloadedFrontier.isEmpty())
+            publishNetwork();
+    }
+
+    private boolean isNodeMarked (BlockPos coord) {
+        StorageRecord record = storage.get(coord);
+        return record != null && record.mark;
+    }
+
+    private boolean isAdjacentToNetwork (BlockPos coord) {
+        for (EnumFacing side : EnumFacing.VALUES) {
+            if (isNodeMarked(coord.offset(side)))
+                return true;
+        }
+
+        return false;
+    }
+
+    private boolean isCutVertex (BlockPos coord) {
+        List<BlockPos> neighbors = new ArrayList<>(6);
+        for (EnumFacing side : EnumFacing.VALUES) {
+            BlockPos n = coord.offset(side);
+            if (isNodeMarked(n))
+                neighbors.add(n);
+        }
+
+        if (neighbors.size() <= 1)
+            return false;
+
+        // Removing the node is safe if its neighbors remain connected within the surrounding 3x3x3 region.
+        // Anything else is treated as a possible cut and falls back to a full rescan.
+
+        Queue<BlockPos> queue = new ArrayDeque<>();
+        Set<BlockPos> reached = new HashSet<>();
+        queue.add(neighbors.get(0));
+        reached.add(neighbors.get(0));
+
+        while (!queue.isEmpty()) {
+            BlockPos node = queue.remove();
+            for (EnumFacing side : EnumFacing.VALUES) {
+                BlockPos n = node.offset(side);
+                if (n.equals(coord) || reached.contains(n))
+                    continue;
+                if (Math.abs(n.getX() - coord.getX()) > 1 || Math.abs(n.getY() - coord.getY()) > 1 || Math.abs(n.getZ() - coord.getZ()) > 1)
+                    continue;
+                if (!isNodeMarked(n))
+                    continue;
+
+                reached.add(n);
+                queue.add(n);
+            }
+        }
+
+        for (BlockPos n : neighbors) {
+            if (!reached.contains(n))
+                return true;
+        }
+
+        return false;
+    }
+
+    private int getDistance (BlockPos coord) {
+        BlockPos root = getPos();
+        return Math.max(Math.max(Math.abs(coord.getX() - root.getX()), Math.abs(coord.getY() - root.getY())), Math.abs(coord.getZ() - root.getZ()));
     }
 
     private void indexSlotRecords (List<SlotRecord> records) {
@@ -375,8 +1068,18 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
 
     private int[] sortSlotRecords (List<SlotRecord> records) {
         indexSlotRecords(records);
+        slotOrderDirty = false;
+
+        return orderSlotRecords(records);
+    }
+
+    private int[] orderSlotRecords (List<SlotRecord> records) {
+        List<SlotRecord> copied = new ArrayList<>(records.size());
+        for (SlotRecord record : records) {
+            if (record != null)
+                copied.add(record);
+        }
 
-        List<SlotRecord> copied = new ArrayList<>(records);
         Collections.sort(copied, slotRecordComparator);
 
         int[] slotMap = new int[copied.size()];
@@ -386,36 +1089,112 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
         return slotMap;
     }
 
-    private void rebuildPrimaryLookup (ItemMetaCollectionRegistry<SlotRecord> lookup, List<SlotRecord> records) {
-        lookup.clear();
+    private void rebuildSlotLookups (List<SlotRecord> records) {
+        drawerPrimaryLookup.clear();
+        drawerConvertibleSlots.clear();
+        drawerEmptySlots.clear();
+        drawerLockedEmptySlots.clear();
+        drawerUntrackedSlots.clear();
+        pendingLookupUpdates.clear();
 
         for (SlotRecord record : records) {
-            IDrawerGroup group = getGroupForSlotRecord(record);
-            if (group == null)
-                continue;
+            record.identity = null;
+            record.slotSet = null;
+            record.storedCount = 0;
+            record.remainingCapacity = 0;
+            record.maxCapacity = 0;
+            indexSlotRecord(record);
+        }
+    }
 
-            int drawerSlot = record.slot;
-            IDrawer drawer = group.getDrawer(drawerSlot);
-            if (!drawer.isEnabled() || drawer.isEmpty())
-                continue;
+    private void indexSlotRecord (SlotRecord record) {
+        IDrawerGroup group = getGroupForSlotRecord(record);
+        if (group == null)
+            return;
+
+        // Only drawer tiles report content changes through ControllerTracker.  Slots of any other drawer group
+        // would go stale in the lookup, so they are kept apart and read live by every repository operation.
+        if (!record.tracked) {
+            record.slotSet = drawerUntrackedSlots;
+            record.slotSet.add(record);
+            return;
+        }
+
+        IDrawer drawer = group.getDrawer(record.slot);
+        if (!drawer.isEnabled())
+            return;
+
+        IDrawerAttributes attrs = getAttributes(group);
+
+        if (drawer.isEmpty()) {
+            record.slotSet = attrs.isItemLocked(LockAttribute.LOCK_EMPTY) ? drawerLockedEmptySlots : drawerEmptySlots;
+            record.slotSet.add(record);
+            updateSlotStats(record, drawer);
+            return;
+        }
+
+        if (attrs.isDictConvertible()) {
+            record.slotSet = drawerConvertibleSlots;
+            record.slotSet.add(record);
+        }
+
+        record.identity = new ItemIdentity(drawer.getStoredItemPrototype());
+        drawerPrimaryLookup.computeIfAbsent(record.identity, k -> new SlotBucket()).records.add(record);
+        updateSlotStats(record, drawer);
+    }
+
+    private void unindexSlotRecord (SlotRecord record) {
+        updateSlotStats(record, null);
+
+        if (record.slotSet != null) {
+            record.slotSet.remove(record);
+            record.slotSet = null;
+        }
+
+        if (record.identity == null)
+            return;
+
+        SlotBucket bucket = drawerPrimaryLookup.get(record.identity);
+        if (bucket != null) {
+            bucket.records.remove(record);
+            if (bucket.records.isEmpty())
+                drawerPrimaryLookup.remove(record.identity);
+        }
+
+        record.identity = null;
+    }
+
+    private void updateSlotStats (SlotRecord record, IDrawer drawer) {
+        SlotBucket bucket = (record.identity != null) ? drawerPrimaryLookup.get(record.identity) : null;
+        if (bucket != null) {
+            bucket.storedCount -= record.storedCount;
+            bucket.remainingCapacity -= record.remainingCapacity;
+            bucket.maxCapacity -= record.maxCapacity;
+        }
+
+        record.storedCount = (drawer != null) ? drawer.getStoredItemCount() : 0;
+        record.remainingCapacity = (drawer != null) ? drawer.getAcceptingRemainingCapacity() : 0;
+        record.maxCapacity = (drawer != null) ? drawer.getMaxCapacity() : 0;
 
-            ItemStack item = drawer.getStoredItemPrototype();
-            lookup.register(item.getItem(), item.getMetadata(), record);
+        if (bucket != null) {
+            bucket.storedCount += record.storedCount;
+            bucket.remainingCapacity += record.remainingCapacity;
+            bucket.maxCapacity += record.maxCapacity;
         }
     }
 
-    private boolean containsNullEntries (List<SlotRecord> list) {
+    private int countNullEntries (List<SlotRecord> list) {
         int nullCount = 0;
         for (SlotRecord aList : list) {
             if (aList == null)
                 nullCount++;
         }
 
-        return nullCount > 0;
+        return nullCount;
     }
 
     private void flattenLists () {
-        if (containsNullEntries(drawerSlotList)) {
+        if (countNullEntries(drawerSlotList) > 0) {
             List<SlotRecord> newDrawerSlotList = new ArrayList<>();
 
             for (SlotRecord record : drawerSlotList) {
@@ -427,20 +1206,35 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
         }
     }
 
-    private void clearRecordInfo (BlockPos coord, StorageRecord record) {
+    private void clearRecordInfo (BlockPos coord, StorageRecord record, List<SlotRecord> slotList) {
+        for (SlotRecord slotRecord : record.slotRecords) {
+            unindexSlotRecord(slotRecord);
+
+            int index = slotRecord.index;
+            if (index < 0 || index >= slotList.size() || slotList.get(index) != slotRecord)
+                index = slotList.indexOf(slotRecord);
+            if (index >= 0)
+                slotList.set(index, null);
+        }
+
         record.clear();
+    }
 
-        for (int i = 0; i < drawerSlotList.size(); i++) {
-            SlotRecord slotRecord = drawerSlotList.get(i);
-            if (slotRecord != null && coord.equals(slotRecord.coord))
-                drawerSlotList.set(i, null);
+    private void addSlotRecords (BlockPos coord, StorageRecord record, IDrawerGroup group, List<SlotRecord> slotList, boolean tracked) {
+        record.storage = group;
+        record.drawerStorageSize = group.getDrawerCount();
+
+        for (int i = 0, n = record.drawerStorageSize; i < n; i++) {
+            SlotRecord slotRecord = new SlotRecord(group, coord, i, tracked);
+            record.slotRecords.add(slotRecord);
+            slotList.add(slotRecord);
         }
     }
 
-    private void updateRecordInfo (BlockPos coord, StorageRecord record, TileEntity te) {
+    private void updateRecordInfo (BlockPos coord, StorageRecord record, TileEntity te, List<SlotRecord> slotList) {
         if (te == null) {
             if (record.storage != null)
-                clearRecordInfo(coord, record);
+                clearRecordInfo(coord, record, slotList);
 
             return;
         }
@@ -450,7 +1244,7 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
                 return;
 
             if (record.storage != null)
-                clearRecordInfo(coord, record);
+                clearRecordInfo(coord, record, slotList);
 
             record.storage = null;
         }
@@ -461,7 +1255,7 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
             }
 
             if (record.storage != null)
-                clearRecordInfo(coord, record);
+                clearRecordInfo(coord, record, slotList);
 
             record.storage = null;
 
@@ -473,13 +1267,9 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
                 return;
 
             if (record.storage != null)
-                clearRecordInfo(coord, record);
-
-            record.storage = group;
-            record.drawerStorageSize = group.getDrawerCount();
+                clearRecordInfo(coord, record, slotList);
 
-            for (int i = 0, n = record.drawerStorageSize; i < n; i++)
-                drawerSlotList.add(new SlotRecord(group, coord, i));
+            addSlotRecords(coord, record, group, slotList, true);
         }
         else {
             IDrawerGroup group = te.getCapability(DRAWER_GROUP_CAPABILITY, null);
@@ -487,64 +1277,74 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
                 return;
 
             if (record.storage != null)
-                clearRecordInfo(coord, record);
+                clearRecordInfo(coord, record, slotList);
             if (group == null)
                 return;
 
-            record.storage = group;
-            record.drawerStorageSize = group.getDrawerCount();
-
-            for (int i = 0, n = record.drawerStorageSize; i < n; i++)
-                drawerSlotList.add(new SlotRecord(group, coord, i));
+            addSlotRecords(coord, record, group, slotList, false);
         }
     }
 
     private void populateNodes (BlockPos root) {
+        populateNodes(root, root);
+    }
 
-        searchQueue.clear();
-        searchQueue.add(root);
-
-        searchDiscovered.clear();
-        searchDiscovered.add(root);
+    private void populateNodes (BlockPos root, BlockPos start) {
+        searchWalker.walk(start.toLong(), node -> {
+            int result = visitNode(root, node, storage, drawerSlotList);
+            if (result == VISIT_UNLOADED)
+                unloadedFrontier.add(searchPos.toImmutable());
+            else if (result == VISIT_TRUNCATED)
+                topologyTruncated = true;
 
-        while (!searchQueue.isEmpty()) {
-            BlockPos coord = searchQueue.remove();
-            int depth = Math.max(Math.max(Math.abs(coord.getX() - root.getX()), Math.abs(coord.getY() - root.getY())), Math.abs(coord.getZ() - root.getZ()));
-            if (depth > range)
-                continue;
+            return result == VISIT_ACCEPTED;
+        });
+    }
 
-            if (!getWorld().isBlockLoaded(coord, false))
-                continue;
+    private int visitNode (BlockPos root, long node, Map<BlockPos, StorageRecord> nodeMap, List<SlotRecord> slotList) {
+        int depth = NetworkWalker.getDistance(node, root);
+        NetworkWalker.setPos(searchPos, node);
+
+        // Nodes past the range are not visited, but note whether the component continues there, since an unloaded
+        // or networked neighbour means this controller has not seen the whole of it.
+        if (depth > range) {
+            if (!getWorld().isBlockLoaded(searchPos, false))
+                return (searchPos.getY() >= 0 && searchPos.getY() < getWorld().getHeight()) ? VISIT_TRUNCATED : VISIT_REJECTED;
+            if (getWorld().getBlockState(searchPos).getBlock() instanceof INetworked)
+                return VISIT_TRUNCATED;
+            return VISIT_REJECTED;
+        }
 
-            Block block = getWorld().getBlockState(coord).getBlock();
-            if (!(block instanceof INetworked))
-                continue;
+        if (!getWorld().isBlockLoaded(searchPos, false)) {
+            if (searchPos.getY() >= 0 && searchPos.getY() < getWorld().getHeight())
+                return VISIT_UNLOADED;
+            return VISIT_REJECTED;
+        }
 
-            StorageRecord record = storage.get(coord);
-            if (record == null) {
-                record = new StorageRecord();
-                storage.put(coord, record);
-            }
+        Block block = getWorld().getBlockState(searchPos).getBlock();
+        if (!(block instanceof INetworked))
+            return VISIT_REJECTED;
 
-            if (block instanceof BlockSlave) {
-                ((BlockSlave) block).getTileEntitySafe(getWorld(), coord);
-            }
+        StorageRecord record = nodeMap.get(searchPos);
+        if (record != null && record.mark)
+            return VISIT_REJECTED;
 
-            updateRecordInfo(coord, record, getWorld().getTileEntity(coord));
-            record.mark = true;
-            record.distance = depth;
+        BlockPos coord = searchPos.toImmutable();
 
-            BlockPos[] neighbors = new BlockPos[]{
-                coord.west(), coord.east(), coord.south(), coord.north(), coord.up(), coord.down()
-            };
+        if (record == null) {
+            record = new StorageRecord();
+            nodeMap.put(coord, record);
+        }
 
-            for (BlockPos n : neighbors) {
-                if (!searchDiscovered.contains(n)) {
-                    searchQueue.add(n);
-                    searchDiscovered.add(n);
-                }
-            }
+        if (block instanceof BlockSlave) {
+            ((BlockSlave) block).getTileEntitySafe(getWorld(), coord);
         }
+
+        updateRecordInfo(coord, record, getWorld().getTileEntity(coord), slotList);
+        record.mark = true;
+        record.distance = depth;
+
+        return VISIT_ACCEPTED;
     }
 
     protected IDrawerGroup getGroupForDrawerSlot (int drawerSlot) {
@@ -567,6 +1367,7 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
             TileEntity tile = (TileEntity)group;
             if (tile.isInvalid() || !tile.getPos().equals(record.coord)) {
                 record.group = null;
+                topologyInvalid = true;
                 return null;
             }
         }
@@ -589,6 +1390,9 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
     public void readFromNBT (NBTTagCompound tag) {
         super.readFromNBT(tag);
 
+        if (tag.hasKey("Topology", Constants.NBT.TAG_COMPOUND))
+            readTopology(tag.getCompoundTag("Topology"));
+
         if (getWorld() != null && !getWorld().isRemote)
             updateCache();
     }
@@ -597,13 +1401,16 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
     public NBTTagCompound writeToNBT (NBTTagCompound tag) {
         super.writeToNBT(tag);
 
+        if (getWorld() != null && !getWorld().isRemote && !topologyInvalid && !storage.isEmpty())
+            tag.setTag("Topology", writeTopology());
+
         return tag;
     }
 
     @Override
     public NBTTagCompound getUpdateTag () {
         NBTTagCompound tag = new NBTTagCompound();
-        writeToNBT(tag);
+        super.writeToNBT(tag);
 
         return tag;
     }
@@ -624,12 +1431,20 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
 
     @Override
     public int getDrawerCount () {
+        TileEntityController owner = getNetworkOwner();
+        if (owner != this)
+            return owner.getDrawerCount();
+
         return drawerSlotList.size();
     }
 
     @Override
     @Nonnull
     public IDrawer getDrawer (int slot) {
+        TileEntityController owner = getNetworkOwner();
+        if (owner != this)
+            return owner.getDrawer(slot);
+
         IDrawerGroup group = getGroupForDrawerSlot(slot);
         if (group == null)
             return Drawers.DISABLED;
@@ -640,6 +1455,10 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
     @Nonnull
     @Override
     public int[] getAccessibleDrawerSlots () {
+        TileEntityController owner = getNetworkOwner();
+        if (owner != this)
+            return owner.getAccessibleDrawerSlots();
+
         return drawerSlots;
     }
 
@@ -680,6 +1499,8 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
 
     private class ItemRepository extends DrawerItemRepository
     {
+        private final Set<Integer> simulatedSlots = new HashSet<>();
+
         public ItemRepository (IDrawerGroup group) {
             super(group);
         }
@@ -687,8 +1508,220 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
         @Nonnull
         @Override
         public ItemStack insertItem (@Nonnull ItemStack stack, boolean simulate, Predicate<ItemStack> predicate) {
-            Collection<SlotRecord> primaryRecords = drawerPrimaryLookup.getEntries(stack.getItem(), stack.getMetadata());
-            Set<Integer> checkedSlots = (simulate) ? new HashSet<>() : null;
+            TileEntityController owner = getNetworkOwner();
+            if (owner != TileEntityController.this)
+                return owner.itemRepository.insertItem(stack, simulate, predicate);
+
+            beginLookup();
+            try {
+                return insertItemIndexed(stack, simulate, predicate);
+            }
+            finally {
+                endLookup();
+            }
+        }
+
+        @Nonnull
+        @Override
+        public ItemStack extractItem (@Nonnull ItemStack stack, int amount, boolean simulate, Predicate<ItemStack> predicate) {
+            TileEntityController owner = getNetworkOwner();
+            if (owner != TileEntityController.this)
+                return owner.itemRepository.extractItem(stack, amount, simulate, predicate);
+
+            beginLookup();
+            try {
+                return extractItemIndexed(stack, amount, simulate, predicate);
+            }
+            finally {
+                endLookup();
+            }
+        }
+
+        @Nonnull
+        @Override
+        public NonNullList<ItemStack> insertItems (@Nonnull List<ItemStack> stacks, boolean simulate, Predicate<ItemStack> predicate) {
+            TileEntityController owner = getNetworkOwner();
+            if (owner != TileEntityController.this)
+                return owner.itemRepository.insertItems(stacks, simulate, predicate);
+
+            // Hold the lookup open across the whole batch so drawer changes made by one group are folded into the
+            // index once at the end, rather than after every group.
+            beginLookup();
+            try {
+                return super.insertItems(stacks, simulate, predicate);
+            }
+            finally {
+                endLookup();
+            }
+        }
+
+        @Nonnull
+        @Override
+        public NonNullList<ItemStack> extractItems (@Nonnull List<ItemRequest> requests, boolean simulate, Predicate<ItemStack> predicate) {
+            TileEntityController owner = getNetworkOwner();
+            if (owner != TileEntityController.this)
+                return owner.itemRepository.extractItems(requests, simulate, predicate);
+
+            beginLookup();
+            try {
+                return super.extractItems(requests, simulate, predicate);
+            }
+            finally {
+                endLookup();
+            }
+        }
+
+        @Override
+        public int getStoredItemCount (@Nonnull ItemStack stack, Predicate<ItemStack> predicate) {
+            TileEntityController owner = getNetworkOwner();
+            if (owner != TileEntityController.this)
+                return owner.itemRepository.getStoredItemCount(stack, predicate);
+
+            if (predicate != null)
+                return super.getStoredItemCount(stack, predicate);
+
+            ItemIdentity identity = new ItemIdentity(stack);
+            SlotBucket bucket = drawerPrimaryLookup.get(identity);
+
+            long count = (bucket != null) ? bucket.storedCount : 0;
+            count += sumConvertibleSlots(identity, IDrawer::getStoredItemCount);
+            count += sumUntrackedSlots(stack, IDrawer::getStoredItemCount, null);
+
+            return (int)Math.min(count, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public int getRemainingItemCapacity (@Nonnull ItemStack stack, Predicate<ItemStack> predicate) {
+            TileEntityController owner = getNetworkOwner();
+            if (owner != TileEntityController.this)
+                return owner.itemRepository.getRemainingItemCapacity(stack, predicate);
+
+            if (predicate != null)
+                return super.getRemainingItemCapacity(stack, predicate);
+
+            ItemIdentity identity = new ItemIdentity(stack);
+            SlotBucket bucket = drawerPrimaryLookup.get(identity);
+
+            long remainder = (bucket != null) ? bucket.remainingCapacity : 0;
+            remainder += sumConvertibleSlots(identity, IDrawer::getAcceptingRemainingCapacity);
+
+            // Empty drawers report no remaining capacity of their own, but any of them can take the item
+            ToIntFunction<IDrawer> emptyStat = drawer -> drawer.getAcceptingMaxCapacity(stack);
+            if (acceptsEmptySlots())
+                remainder += sumEmptySlots(stack, emptyStat);
+
+            remainder += sumUntrackedSlots(stack, IDrawer::getAcceptingRemainingCapacity, acceptsEmptySlots() ? emptyStat : null);
+
+            return (int)Math.min(remainder, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public int getItemCapacity (@Nonnull ItemStack stack, Predicate<ItemStack> predicate) {
+            TileEntityController owner = getNetworkOwner();
+            if (owner != TileEntityController.this)
+                return owner.itemRepository.getItemCapacity(stack, predicate);
+
+            if (predicate != null)
+                return super.getItemCapacity(stack, predicate);
+
+            ItemIdentity identity = new ItemIdentity(stack);
+            SlotBucket bucket = drawerPrimaryLookup.get(identity);
+
+            long capacity = (bucket != null) ? bucket.maxCapacity : 0;
+            capacity += sumConvertibleSlots(identity, IDrawer::getMaxCapacity);
+
+            ToIntFunction<IDrawer> emptyStat = drawer -> drawer.getMaxCapacity(stack);
+            if (acceptsEmptySlots())
+                capacity += sumEmptySlots(stack, emptyStat);
+
+            capacity += sumUntrackedSlots(stack, IDrawer::getMaxCapacity, acceptsEmptySlots() ? emptyStat : null);
+
+            return (int)Math.min(capacity, Integer.MAX_VALUE);
+        }
+
+        private long sumConvertibleSlots (ItemIdentity identity, ToIntFunction<IDrawer> stat) {
+            long sum = 0;
+            for (SlotRecord record : drawerConvertibleSlots) {
+                if (identity.equals(record.identity))
+                    continue;
+
+                IDrawerGroup candidateGroup = getGroupForSlotRecord(record);
+                if (candidateGroup == null)
+                    continue;
+
+                IDrawer drawer = candidateGroup.getDrawer(record.slot);
+                if (!testPredicateInsert(drawer, identity.getStack(), null))
+                    continue;
+
+                sum += stat.applyAsInt(drawer);
+            }
+
+            return sum;
+        }
+
+        // An empty drawer's capacity depends on the stack limit of the item offered, so empty slots are summed per
+        // query rather than kept as a running total.
+        private long sumEmptySlots (@Nonnull ItemStack stack, ToIntFunction<IDrawer> stat) {
+            long sum = sumEmptySlots(drawerEmptySlots, stack, stat);
+            if (sum < Integer.MAX_VALUE)
+                sum += sumEmptySlots(drawerLockedEmptySlots, stack, stat);
+
+            return sum;
+        }
+
+        private long sumEmptySlots (Set<SlotRecord> records, @Nonnull ItemStack stack, ToIntFunction<IDrawer> stat) {
+            long sum = 0;
+            for (SlotRecord record : records) {
+                IDrawerGroup candidateGroup = getGroupForSlotRecord(record);
+                if (candidateGroup == null)
+                    continue;
+
+                IDrawer drawer = candidateGroup.getDrawer(record.slot);
+                if (!drawer.isEnabled())
+                    continue;
+                if (!testPredicateInsert(drawer, stack, null))
+                    continue;
+
+                sum += stat.applyAsInt(drawer);
+                if (sum >= Integer.MAX_VALUE)
+                    break;
+            }
+
+            return sum;
+        }
+
+        // Sums a populated drawer stat over the untracked slots that accept the item, and for empty slots the given
+        // empty stat, if any.
+        private long sumUntrackedSlots (@Nonnull ItemStack stack, ToIntFunction<IDrawer> stat, ToIntFunction<IDrawer> emptyStat) {
+            long sum = 0;
+            for (SlotRecord record : drawerUntrackedSlots) {
+                IDrawerGroup candidateGroup = getGroupForSlotRecord(record);
+                if (candidateGroup == null)
+                    continue;
+
+                IDrawer drawer = candidateGroup.getDrawer(record.slot);
+                if (!drawer.isEnabled())
+                    continue;
+                if (!testPredicateInsert(drawer, stack, null))
+                    continue;
+
+                if (!drawer.isEmpty())
+                    sum += stat.applyAsInt(drawer);
+                else if (emptyStat != null)
+                    sum += emptyStat.applyAsInt(drawer);
+
+                if (sum >= Integer.MAX_VALUE)
+                    break;
+            }
+
+            return sum;
+        }
+
+        @Nonnull
+        private ItemStack insertItemIndexed (@Nonnull ItemStack stack, boolean simulate, Predicate<ItemStack> predicate) {
+            SlotBucket primaryBucket = drawerPrimaryLookup.get(new ItemIdentity(stack));
+            Collection<SlotRecord> primaryRecords = (primaryBucket != null) ? primaryBucket.records : null;
+            Set<Integer> checkedSlots = (simulate) ? getSimulatedSlots() : null;
 
             int amount = stack.getCount();
             if (primaryRecords != null) {
@@ -704,28 +1737,91 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
                         continue;
                     if (!hasAccess(candidateGroup, drawer))
                         continue;
+                    if (simulate && checkedSlots.contains(record.index))
+                        continue;
 
                     amount = (simulate)
                         ? Math.max(amount - drawer.getAcceptingRemainingCapacity(), 0)
                         : drawer.adjustStoredItemCount(amount);
 
+                    if (simulate)
+                        checkedSlots.add(record.index);
+
                     if (amount == 0)
                         return ItemStack.EMPTY;
+                }
+            }
 
-                    if (simulate)
-                        checkedSlots.add(record.index);
+            // Without a predicate, a populated drawer only accepts an item of a different identity when it performs
+            // ore dictionary conversion, so the remaining candidates are those slots, the untracked slots the index
+            // can't vouch for, and the empty tiers.
+
+            if (predicate != null) {
+                for (int slot : drawerSlots) {
+                    IDrawer drawer = getDrawer(slot);
+                    if (!drawer.isEnabled())
+                        continue;
+                    if (!testPredicateInsert(drawer, stack, predicate))
+                        continue;
+                    if (!hasAccess(getGroupForDrawerSlot(slot), drawer))
+                        continue;
+                    if (simulate && !checkedSlots.add(slot))
+                        continue;
+
+                    boolean empty = drawer.isEmpty();
+                    if (empty && !simulate)
+                        drawer = drawer.setStoredItem(stack);
+
+                    amount = (simulate)
+                        ? Math.max(amount - (empty ? drawer.getAcceptingMaxCapacity(stack) : drawer.getAcceptingRemainingCapacity()), 0)
+                        : drawer.adjustStoredItemCount(amount);
+
+                    if (amount == 0)
+                        return ItemStack.EMPTY;
                 }
+
+                return stackResult(stack, amount);
+            }
+
+            amount = insertIntoSlots(drawerConvertibleSlots, stack, amount, simulate, predicate, checkedSlots);
+            amount = insertIntoSlots(drawerUntrackedSlots, stack, amount, simulate, predicate, checkedSlots);
+            if (amount > 0 && acceptsEmptySlots()) {
+                amount = insertIntoSlots(drawerEmptySlots, stack, amount, simulate, predicate, checkedSlots);
+                amount = insertIntoSlots(drawerLockedEmptySlots, stack, amount, simulate, predicate, checkedSlots);
             }
 
-            for (int slot : drawerSlots) {
-                IDrawer drawer = getDrawer(slot);
+            if (amount == 0)
+                return ItemStack.EMPTY;
+
+            return stackResult(stack, amount);
+        }
+
+        // Within a simulated batch, slots claimed by the batch's earlier items stay claimed
+        private Set<Integer> getSimulatedSlots () {
+            if (batchClaimedSlots != null)
+                return batchClaimedSlots;
+
+            simulatedSlots.clear();
+            return simulatedSlots;
+        }
+
+        private int insertIntoSlots (Set<SlotRecord> records, @Nonnull ItemStack stack, int amount, boolean simulate, Predicate<ItemStack> predicate, Set<Integer> checkedSlots) {
+            for (SlotRecord record : records) {
+                if (amount == 0)
+                    break;
+
+                IDrawerGroup candidateGroup = getGroupForSlotRecord(record);
+                if (candidateGroup == null)
+                    continue;
+
+                IDrawer drawer = candidateGroup.getDrawer(record.slot);
                 if (!drawer.isEnabled())
                     continue;
                 if (!testPredicateInsert(drawer, stack, predicate))
                     continue;
-                if (!hasAccess(getGroupForDrawerSlot(slot), drawer))
+                if (!hasAccess(candidateGroup, drawer))
                     continue;
-                if (simulate && checkedSlots.contains(slot))
+                if (simulate && checkedSlots.contains(record.index))
                     continue;
 
                 boolean empty = drawer.isEmpty();
@@ -736,18 +1832,20 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
                     ? Math.max(amount - (empty ? drawer.getAcceptingMaxCapacity(stack) : drawer.getAcceptingRemainingCapacity()), 0)
                     : drawer.adjustStoredItemCount(amount);
 
-                if (amount == 0)
-                    return ItemStack.EMPTY;
+                if (simulate)
+                    checkedSlots.add(record.index);
             }
 
-            return stackResult(stack, amount);
+            return amount;
         }
 
         @Nonnull
-        @Override
-        public ItemStack extractItem (@Nonnull ItemStack stack, int amount, boolean simulate, Predicate<ItemStack> predicate) {
-            Collection<SlotRecord> primaryRecords = drawerPrimaryLookup.getEntries(stack.getItem(), stack.getMetadata());
-            Set<Integer> checkedSlots = (simulate) ? new HashSet<>() : null;
+        private ItemStack extractItemIndexed (@Nonnull ItemStack stack, int amount, boolean simulate, Predicate<ItemStack> predicate) {
+            SlotBucket primaryBucket = drawerPrimaryLookup.get(new ItemIdentity(stack));
+            Collection<SlotRecord> primaryRecords = (primaryBucket != null) ? primaryBucket.records : null;
+            Set<Integer> checkedSlots = (simulate) ? simulatedSlots : null;
+            if (simulate)
+                simulatedSlots.clear();
 
             int remaining = amount;
             if (primaryRecords != null) {
@@ -776,36 +1874,81 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
                 }
             }
 
-            for (int slot : drawerSlots) {
-                IDrawer drawer = getDrawer(slot);
+            // As with inserts, without a predicate only ore dictionary converting slots and untracked slots can hold
+            // the item outside its bucket, so a custom predicate is the only reason to scan the whole network.
+
+            if (predicate != null) {
+                for (int slot : drawerSlots) {
+                    IDrawer drawer = getDrawer(slot);
+                    if (!drawer.isEnabled())
+                        continue;
+                    if (!testPredicateExtract(drawer, stack, predicate))
+                        continue;
+                    if (simulate && checkedSlots.contains(slot))
+                        continue;
+
+                    remaining = (simulate)
+                        ? Math.max(remaining - drawer.getStoredItemCount(), 0)
+                        : drawer.adjustStoredItemCount(-remaining);
+
+                    if (remaining == 0)
+                        return stackResult(stack, amount);
+                }
+            }
+            else {
+                remaining = extractFromSlots(drawerConvertibleSlots, stack, remaining, simulate, checkedSlots);
+                remaining = extractFromSlots(drawerUntrackedSlots, stack, remaining, simulate, checkedSlots);
+            }
+
+            if (remaining == 0)
+                return stackResult(stack, amount);
+
+            return (amount == remaining)
+                ? ItemStack.EMPTY
+                : stackResult(stack, amount - remaining);
+        }
+
+        private int extractFromSlots (Set<SlotRecord> records, @Nonnull ItemStack stack, int remaining, boolean simulate, Set<Integer> checkedSlots) {
+            for (SlotRecord record : records) {
+                if (remaining == 0)
+                    break;
+
+                IDrawerGroup candidateGroup = getGroupForSlotRecord(record);
+                if (candidateGroup == null)
+                    continue;
+
+                IDrawer drawer = candidateGroup.getDrawer(record.slot);
                 if (!drawer.isEnabled())
                     continue;
-                if (!testPredicateExtract(drawer, stack, predicate))
+                if (!testPredicateExtract(drawer, stack, null))
                     continue;
-                if (simulate && checkedSlots.contains(slot))
+                if (simulate && checkedSlots.contains(record.index))
                     continue;
 
                 remaining = (simulate)
                     ? Math.max(remaining - drawer.getStoredItemCount(), 0)
                     : drawer.adjustStoredItemCount(-remaining);
 
-                if (remaining == 0)
-                    return stackResult(stack, amount);
+                if (simulate)
+                    checkedSlots.add(record.index);
             }
 
-            return (amount == remaining)
-                ? ItemStack.EMPTY
-                : stackResult(stack, amount - remaining);
+            return remaining;
         }
 
         protected boolean hasAccess (IDrawerGroup group, IDrawer drawer) {
             return true;
         }
+
+        protected boolean acceptsEmptySlots () {
+            return true;
+        }
     }
 
     private class ProtectedItemRepository extends ItemRepository
     {
         private GameProfile profile;
+        private Map<IDrawerGroup, Boolean> accessCache = new IdentityHashMap<>();
 
         public ProtectedItemRepository (IDrawerGroup group, GameProfile profile) {
             super(group);
@@ -817,9 +1960,14 @@ public class TileEntityController extends TileEntity implements IDrawerGroup
             if (drawer.isEmpty())
                 return false;
             if (group instanceof IProtectable)
-                return SecurityManager.hasAccess(profile, (IProtectable)group);
+                return accessCache.computeIfAbsent(group, g -> SecurityManager.hasAccess(profile, (IProtectable)g));
 
             return true;
         }
+
+        @Override
+        protected boolean acceptsEmptySlots () {
+            return false;
+        }
     }
 }
@@ -4,11 +4,13 @@ import com.jaquadro.minecraft.chameleon.block.ChamLockableTileEntity;
 import com.jaquadro.minecraft.chameleon.block.ChamTileEntity;
 import com.jaquadro.minecraft.chameleon.block.tiledata.CustomNameData;
 import com.jaquadro.minecraft.chameleon.block.tiledata.LockableData;
+import com.jaquadro.minecraft.chameleon.block.tiledata.TileDataShim;
 import com.jaquadro.minecraft.storagedrawers.StorageDrawers;
 import com.jaquadro.minecraft.storagedrawers.api.capabilities.IItemRepository;
 import com.jaquadro.minecraft.storagedrawers.api.security.ISecurityProvider;
 import com.jaquadro.minecraft.storagedrawers.api.storage.*;
 import com.jaquadro.minecraft.storagedrawers.api.storage.attribute.*;
+import com.jaquadro.minecraft.storagedrawers.block.modeldata.DrawerStateModelData;
 import com.jaquadro.minecraft.storagedrawers.block.tile.tiledata.ControllerData;
 import com.jaquadro.minecraft.storagedrawers.block.tile.tiledata.MaterialData;
 import com.jaquadro.minecraft.storagedrawers.block.tile.tiledata.UpgradeData;
@@ -17,10 +19,15 @@ import com.jaquadro.minecraft.storagedrawers.capabilities.BasicDrawerAttributes;
 import com.jaquadro.minecraft.storagedrawers.capabilities.DrawerItemHandler;
 import com.jaquadro.minecraft.storagedrawers.item.EnumUpgradeRedstone;
 import com.jaquadro.minecraft.storagedrawers.item.EnumUpgradeStorage;
+import com.jaquadro.minecraft.storagedrawers.inventory.ContainerDrawers;
+import com.jaquadro.minecraft.storagedrawers.network.ClientCountInbox;
 import com.jaquadro.minecraft.storagedrawers.network.CountUpdateMessage;
+import com.jaquadro.minecraft.storagedrawers.network.DrawerSyncQueue;
+import com.jaquadro.minecraft.storagedrawers.storage.network.ControllerTracker;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
@@ -32,7 +39,6 @@ import net.minecraft.world.IWorldNameable;
 import net.minecraft.world.World;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.CapabilityInject;
-import net.minecraftforge.fml.common.network.NetworkRegistry.TargetPoint;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import net.minecraftforge.items.IItemHandler;
@@ -62,14 +68,32 @@ public abstract class TileEntityDrawers extends ChamTileEntity implements ISeala
     private long lastClickTime;
     private UUID lastClickUUID;
 
+    protected static final int DESCRIPTION_DRAWERS = 1;
+    protected static final int DESCRIPTION_ATTRIBUTES = 2;
+    protected static final int DESCRIPTION_UPGRADES = 4;
+
+    private int pendingDescription;
+    private int pendingDescriptionSlots;
+
+    private boolean redstoneUpdatePending;
+    private int redstoneLevel = -1;
+
+    private float[] fillRatios = new float[0];
+    private int fillRatiosDirty = ~0;
+    private int combinedRedstoneLevel;
+    private int minRedstoneLevel;
+    private int maxRedstoneLevel;
+
     private class DrawerAttributes extends BasicDrawerAttributes
     {
         @Override
         protected void onAttributeChanged () {
             TileEntityDrawers.this.onAttributeChanged();
+            markFillRatioDirty(~0);
             if (getWorld() != null && !getWorld().isRemote) {
                 markDirty();
-                markBlockForUpdate();
+                markDescriptionDirty(DESCRIPTION_ATTRIBUTES | DESCRIPTION_DRAWERS, ~0);
+                ControllerTracker.notifyNodeChanged(getWorld(), getPos());
             }
         }
     }
@@ -117,13 +141,19 @@ public abstract class TileEntityDrawers extends ChamTileEntity implements ISeala
 
         @Override
         protected void onUpgradeChanged (ItemStack oldUpgrade, ItemStack newUpgrade) {
-
+            markFillRatioDirty(~0);
             if (getWorld() != null && !getWorld().isRemote) {
                 markDirty();
-                markBlockForUpdate();
+                markDescriptionDirty(DESCRIPTION_UPGRADES | DESCRIPTION_DRAWERS, ~0);
+                ControllerTracker.notifyNodeChanged(getWorld(), getPos());
             }
         }
 
+        @Override
+        protected void onStorageMultiplierChanged () {
+            markFillRatioDirty(~0);
+        }
+
         private boolean stackCapacityCheck (int stackCapacity) {
             for (int i = 0; i < getDrawerCount(); i++) {
                 IDrawer drawer = getDrawer(i);
@@ -214,7 +244,7 @@ public abstract class TileEntityDrawers extends ChamTileEntity implements ISeala
 
             if (getWorld() != null && !getWorld().isRemote) {
                 markDirty();
-                markBlockForUpdate();
+                markDescriptionDirty(DESCRIPTION_ATTRIBUTES, 0);
             }
         }
 
@@ -237,7 +267,7 @@ public abstract class TileEntityDrawers extends ChamTileEntity implements ISeala
 
             if (getWorld() != null && !getWorld().isRemote) {
                 markDirty();
-                markBlockForUpdate();
+                markDescriptionDirty(DESCRIPTION_ATTRIBUTES, 0);
             }
         }
 
@@ -294,67 +324,87 @@ public abstract class TileEntityDrawers extends ChamTileEntity implements ISeala
     }
 
     protected int getCombinedRedstoneLevel () {
-        int active = 0;
-        float fillRatio = 0;
-
-        for (int i = 0; i < getDrawerCount(); i++) {
-            IDrawer drawer = getDrawer(i);
-            if (!drawer.isEnabled())
-                continue;
+        syncFillRatios();
+        return combinedRedstoneLevel;
+    }
 
-            if (drawer.getMaxCapacity() > 0)
-                fillRatio += ((float)drawer.getStoredItemCount() / drawer.getMaxCapacity());
+    protected int getMinRedstoneLevel () {
+        syncFillRatios();
+        return minRedstoneLevel;
+    }
 
-            active++;
-        }
+    protected int getMaxRedstoneLevel () {
+        syncFillRatios();
+        return maxRedstoneLevel;
+    }
 
-        if (active == 0)
-            return 0;
+    /**
+     * Marks the fill ratios of the drawers in slotMask as stale.  They are recomputed, along with the redstone
+     * levels, the next time a level is read.
+     */
+    protected void markFillRatioDirty (int slotMask) {
+        fillRatiosDirty |= slotMask;
+    }
 
-        if (fillRatio == active)
-            return 15;
+    private void syncFillRatios () {
+        if (fillRatiosDirty == 0)
+            return;
 
-        return (int)Math.ceil((fillRatio / active) * 14);
-    }
+        int drawerCount = getDrawerCount();
+        if (fillRatios.length != drawerCount) {
+            fillRatios = new float[drawerCount];
+            fillRatiosDirty = ~0;
+        }
 
-    protected int getMinRedstoneLevel () {
-        float minRatio = 2;
+        // A disabled drawer is given a negative ratio and left out of every level
+        for (int i = 0; i < drawerCount; i++) {
+            if ((fillRatiosDirty & (1 << i)) == 0)
+                continue;
 
-        for (int i = 0; i < getDrawerCount(); i++) {
             IDrawer drawer = getDrawer(i);
             if (!drawer.isEnabled())
-                continue;
-
-            if (drawer.getMaxCapacity() > 0)
-                minRatio = Math.min(minRatio, (float)drawer.getStoredItemCount() / drawer.getMaxCapacity());
+                fillRatios[i] = -1;
+            else if (drawer.getMaxCapacity() > 0)
+                fillRatios[i] = (float)drawer.getStoredItemCount() / drawer.getMaxCapacity();
             else
-                minRatio = 0;
+                fillRatios[i] = 0;
         }
 
-        if (minRatio > 1)
-            return 0;
-        if (minRatio == 1)
-            return 15;
+        fillRatiosDirty = 0;
 
-        return (int)Math.ceil(minRatio * 14);
-    }
-
-    protected int getMaxRedstoneLevel () {
+        int active = 0;
+        float fillRatio = 0;
+        float minRatio = 2;
         float maxRatio = 0;
 
-        for (int i = 0; i < getDrawerCount(); i++) {
-            IDrawer drawer = getDrawer(i);
-            if (!drawer.isEnabled())
+        for (float ratio : fillRatios) {
+            if (ratio < 0)
                 continue;
 
-            if (drawer.getMaxCapacity() > 0)
-                maxRatio = Math.max(maxRatio, (float)drawer.getStoredItemCount() / drawer.getMaxCapacity());
+            fillRatio += ratio;
+            minRatio = Math.min(minRatio, ratio);
+            maxRatio = Math.max(maxRatio, ratio);
+            active++;
         }
 
-        if (maxRatio == 1)
-            return 15;
+        if (active == 0)
+            combinedRedstoneLevel = 0;
+        else if (fillRatio == active)
+            combinedRedstoneLevel = 15;
+        else
+            combinedRedstoneLevel = (int)Math.ceil((fillRatio / active) * 14);
+
+        if (minRatio > 1)
+            minRedstoneLevel = 0;
+        else if (minRatio == 1)
+            minRedstoneLevel = 15;
+        else
+            minRedstoneLevel = (int)Math.ceil(minRatio * 14);
 
-        return (int)Math.ceil(maxRatio * 14);
+        if (maxRatio == 1)
+            maxRedstoneLevel = 15;
+        else
+            maxRedstoneLevel = (int)Math.ceil(maxRatio * 14);
     }
 
     @Nonnull
@@ -483,6 +533,11 @@ public abstract class TileEntityDrawers extends ChamTileEntity implements ISeala
 
         drawerCapacity = tag.getInteger("Cap");
 
+        readAttributesFromNBT(tag);
+        markFillRatioDirty(~0);
+    }
+
+    private void readAttributesFromNBT (NBTTagCompound tag) {
         drawerAttributes.setItemLocked(LockAttribute.LOCK_EMPTY, false);
         drawerAttributes.setItemLocked(LockAttribute.LOCK_POPULATED, false);
         if (tag.hasKey("Lock")) {
@@ -520,6 +575,10 @@ public abstract class TileEntityDrawers extends ChamTileEntity implements ISeala
         if (material != null)
             tag.setString("Mat", material);
 
+        return writeAttributesToNBT(tag);
+    }
+
+    private NBTTagCompound writeAttributesToNBT (NBTTagCompound tag) {
         EnumSet<LockAttribute> attrs = EnumSet.noneOf(LockAttribute.class);
         if (drawerAttributes.isItemLocked(LockAttribute.LOCK_EMPTY))
             attrs.add(LockAttribute.LOCK_EMPTY);
@@ -547,37 +606,147 @@ public abstract class TileEntityDrawers extends ChamTileEntity implements ISeala
 
     @Override
     public void markDirty () {
-        if (isRedstone() && getWorld() != null) {
-            getWorld().notifyNeighborsOfStateChange(getPos(), getBlockType(), false);
-            getWorld().notifyNeighborsOfStateChange(getPos().down(), getBlockType(), false);
+        // Neighbours are told about redstone changes once per tick at most, from a scheduled block update
+        if (getWorld() != null && !getWorld().isRemote && !redstoneUpdatePending && (isRedstone() || redstoneLevel > 0)) {
+            redstoneUpdatePending = true;
+            getWorld().scheduleBlockUpdate(getPos(), getBlockType(), 1, 0);
         }
 
         super.markDirty();
     }
 
+    public void flushRedstoneUpdate () {
+        redstoneUpdatePending = false;
+
+        int level = isRedstone() ? getRedstoneLevel() : 0;
+        if (level == redstoneLevel)
+            return;
+
+        redstoneLevel = level;
+        getWorld().notifyNeighborsOfStateChange(getPos(), getBlockType(), false);
+        getWorld().notifyNeighborsOfStateChange(getPos().down(), getBlockType(), false);
+    }
+
     protected void syncClientCount (int slot, int count) {
-        if (getWorld() != null && getWorld().isRemote)
+        if (getWorld() == null || getWorld().isRemote)
             return;
 
-        TargetPoint point = new TargetPoint(getWorld().provider.getDimension(),
-            getPos().getX(), getPos().getY(), getPos().getZ(), 500);
-        StorageDrawers.network.sendToAllAround(new CountUpdateMessage(getPos(), slot, count), point);
+        DrawerSyncQueue.enqueue(getWorld(), getPos(), slot, count);
+    }
+
+    /**
+     * Tests whether count changes for this block should be sent to a player that is tracking its chunk.  Players
+     * whose Waila does not report its targets to the server cannot signal interest, so they are always sent counts.
+     */
+    public boolean isCountVisibleTo (EntityPlayerMP player) {
+        if (getDrawerAttributes().isShowingQuantity() || upgrades().getStatusType() != null)
+            return true;
+        if (player.openContainer instanceof ContainerDrawers && ((ContainerDrawers) player.openContainer).getTileEntity() == this)
+            return true;
+
+        return !DrawerSyncQueue.isWailaReporting(player) || DrawerSyncQueue.isWailaTarget(player, getWorld(), getPos());
+    }
+
+    public void addCountSnapshot (CountUpdateMessage message) {
+        IDrawerGroup group = getGroup();
+        for (int i = 0; i < group.getDrawerCount(); i++) {
+            IDrawer drawer = group.getDrawer(i);
+            if (drawer.isEnabled())
+                message.addEntry(getPos(), i, drawer.getStoredItemCount());
+        }
+    }
+
+    /**
+     * Queues a description update carrying the given parts of the block's state, sent at the end of the tick in
+     * place of a full block update.  For DESCRIPTION_DRAWERS, slotMask selects the drawers that changed.
+     *
+     * Attribute and upgrade changes also resend the drawers, since they can make counts visible that were not
+     * being synced to players before.
+     */
+    protected void markDescriptionDirty (int fields, int slotMask) {
+        if (getWorld() == null || getWorld().isRemote)
+            return;
+
+        if (pendingDescription == 0)
+            DrawerSyncQueue.enqueueDescription(getWorld(), this);
+
+        pendingDescription |= fields;
+        pendingDescriptionSlots |= slotMask;
+    }
+
+    public NBTTagCompound takeDescriptionUpdate () {
+        NBTTagCompound tag = new NBTTagCompound();
+        if ((pendingDescription & DESCRIPTION_DRAWERS) != 0)
+            tag.setTag("Drawers", writeDrawerDescription(new NBTTagCompound(), pendingDescriptionSlots));
+        if ((pendingDescription & DESCRIPTION_ATTRIBUTES) != 0)
+            tag.setTag("Attrs", writeAttributesToNBT(new NBTTagCompound()));
+        if ((pendingDescription & DESCRIPTION_UPGRADES) != 0)
+            tag.setTag("Upgrades", upgradeData.writeToNBT(new NBTTagCompound()));
+
+        pendingDescription = 0;
+        pendingDescriptionSlots = 0;
+
+        return tag;
+    }
+
+    protected NBTTagCompound writeDrawerDescription (NBTTagCompound tag, int slotMask) {
+        IDrawerGroup group = getGroup();
+        if (group instanceof TileDataShim)
+            ((TileDataShim) group).writeToNBT(tag);
+
+        return tag;
+    }
+
+    protected void readDrawerDescription (NBTTagCompound tag) {
+        IDrawerGroup group = getGroup();
+        if (group instanceof TileDataShim)
+            ((TileDataShim) group).readFromNBT(tag);
     }
 
     @SideOnly(Side.CLIENT)
-    public void clientUpdateCount (final int slot, final int count) {
+    public void clientUpdateDescription (final NBTTagCompound tag, final long seq) {
         if (!getWorld().isRemote)
             return;
 
-        Minecraft.getMinecraft().addScheduledTask(() -> TileEntityDrawers.this.clientUpdateCountAsync(slot, count));
+        Minecraft.getMinecraft().addScheduledTask(() -> TileEntityDrawers.this.clientUpdateDescriptionAsync(tag, seq));
+    }
+
+    @SideOnly(Side.CLIENT)
+    private void clientUpdateDescriptionAsync (NBTTagCompound tag, long seq) {
+        // Counts carried by the description supersede any that arrived before it and are still waiting to apply
+        if (tag.hasKey("Drawers"))
+            ClientCountInbox.discardBefore(getPos(), getGroup().getDrawerCount(), seq);
+
+        IBlockState oldState = getWorld().getBlockState(getPos()).getActualState(getWorld(), getPos());
+        DrawerStateModelData oldModel = new DrawerStateModelData(this);
+
+        if (tag.hasKey("Drawers"))
+            readDrawerDescription(tag.getCompoundTag("Drawers"));
+        if (tag.hasKey("Attrs"))
+            readAttributesFromNBT(tag.getCompoundTag("Attrs"));
+        if (tag.hasKey("Upgrades"))
+            upgradeData.readFromNBT(tag.getCompoundTag("Upgrades"));
+
+        markFillRatioDirty(~0);
+
+        // The item faces are drawn by the tile entity renderer, so the chunk only needs rebuilding when the state
+        // behind the baked model changed
+        IBlockState newState = getWorld().getBlockState(getPos()).getActualState(getWorld(), getPos());
+        if (!newState.equals(oldState) || !oldModel.equals(new DrawerStateModelData(this)))
+            getWorld().markBlockRangeForRenderUpdate(getPos(), getPos());
     }
 
+    /**
+     * Applies a synced count on the client thread.  Called by {@link ClientCountInbox#drain}.
+     */
     @SideOnly(Side.CLIENT)
-    private void clientUpdateCountAsync (int slot, int count) {
+    public void clientUpdateCount (int slot, int count) {
+        if (!getWorld().isRemote)
+            return;
+
         IDrawer drawer = getDrawer(slot);
         if (drawer.isEnabled() && drawer.getStoredItemCount() != count)
             drawer.setStoredItemCount(count);
-
     }
 
     @Override
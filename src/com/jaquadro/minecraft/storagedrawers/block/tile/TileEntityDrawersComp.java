@@ -8,7 +8,7 @@ import com.jaquadro.minecraft.storagedrawers.block.tile.tiledata.FractionalDrawe
 import com.jaquadro.minecraft.storagedrawers.config.ConfigManager;
 import com.jaquadro.minecraft.storagedrawers.inventory.ContainerDrawersComp;
 import com.jaquadro.minecraft.storagedrawers.network.CountUpdateMessage;
-import net.minecraft.client.Minecraft;
+import com.jaquadro.minecraft.storagedrawers.storage.network.ControllerTracker;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.inventory.Container;
@@ -16,8 +16,6 @@ import net.minecraft.util.EnumFacing;
 import net.minecraft.world.World;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.CapabilityInject;
-import net.minecraftforge.fml.common.network.NetworkRegistry;
-import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
@@ -74,21 +72,22 @@ public class TileEntityDrawersComp extends TileEntityDrawers
 
         @Override
         protected void onItemChanged () {
+            markFillRatioDirty(~0);
             if (getWorld() != null && !getWorld().isRemote) {
                 markDirty();
-                markBlockForUpdate();
+                markDescriptionDirty(DESCRIPTION_DRAWERS, ~0);
+                ControllerTracker.notifyNodeChanged(getWorld(), getPos());
             }
         }
 
         @Override
         protected void onAmountChanged () {
+            markFillRatioDirty(~0);
             if (getWorld() != null && !getWorld().isRemote) {
-                IMessage message = new CountUpdateMessage(getPos(), 0, getPooledCount());
-                NetworkRegistry.TargetPoint targetPoint = new NetworkRegistry.TargetPoint(getWorld().provider.getDimension(), getPos().getX(), getPos().getY(), getPos().getZ(), 500);
-
-                StorageDrawers.network.sendToAllAround(message, targetPoint);
+                syncClientCount(0, getPooledCount());
 
                 markDirty();
+                ControllerTracker.notifyNodeAmountChanged(getWorld(), getPos());
             }
         }
 
@@ -130,17 +129,17 @@ public class TileEntityDrawersComp extends TileEntityDrawers
         return true;
     }
 
+    @Override
+    public void addCountSnapshot (CountUpdateMessage message) {
+        message.addEntry(getPos(), 0, groupData.getPooledCount());
+    }
+
     @Override
     @SideOnly(Side.CLIENT)
-    public void clientUpdateCount (final int slot, final int count) {
+    public void clientUpdateCount (int slot, int count) {
         if (!getWorld().isRemote)
             return;
 
-        Minecraft.getMinecraft().addScheduledTask(() -> TileEntityDrawersComp.this.clientUpdateCountAsync(count));
-    }
-
-    @SideOnly(Side.CLIENT)
-    private void clientUpdateCountAsync (int count) {
         groupData.setPooledCount(count);
     }
 
@@ -4,6 +4,7 @@ import com.jaquadro.minecraft.storagedrawers.StorageDrawers;
 import com.jaquadro.minecraft.storagedrawers.api.capabilities.IItemRepository;
 import com.jaquadro.minecraft.storagedrawers.api.event.DrawerPopulatedEvent;
 import com.jaquadro.minecraft.storagedrawers.api.storage.EnumBasicDrawer;
+import com.jaquadro.minecraft.storagedrawers.api.storage.IDrawer;
 import com.jaquadro.minecraft.storagedrawers.api.storage.IDrawerAttributes;
 import com.jaquadro.minecraft.storagedrawers.api.storage.IDrawerGroup;
 import com.jaquadro.minecraft.storagedrawers.block.BlockStandardDrawers;
@@ -13,15 +14,19 @@ import com.jaquadro.minecraft.storagedrawers.core.ModBlocks;
 import com.jaquadro.minecraft.storagedrawers.inventory.ContainerDrawers1;
 import com.jaquadro.minecraft.storagedrawers.inventory.ContainerDrawers2;
 import com.jaquadro.minecraft.storagedrawers.inventory.ContainerDrawers4;
+import com.jaquadro.minecraft.storagedrawers.storage.network.ControllerTracker;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.inventory.Container;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.CapabilityInject;
+import net.minecraftforge.common.util.Constants;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -37,6 +42,34 @@ public class TileEntityDrawersStandard extends TileEntityDrawers
 
     private int capacity = 0;
 
+    @Override
+    protected NBTTagCompound writeDrawerDescription (NBTTagCompound tag, int slotMask) {
+        NBTTagList slotList = new NBTTagList();
+        for (int i = 0; i < getGroup().getDrawerCount(); i++) {
+            IDrawer drawer = getGroup().getDrawer(i);
+            if ((slotMask & (1 << i)) == 0 || !(drawer instanceof StandardDrawerGroup.DrawerData))
+                continue;
+
+            NBTTagCompound slotTag = ((StandardDrawerGroup.DrawerData) drawer).serializeNBT();
+            slotTag.setByte("Slot", (byte)i);
+            slotList.appendTag(slotTag);
+        }
+
+        tag.setTag("Slots", slotList);
+        return tag;
+    }
+
+    @Override
+    protected void readDrawerDescription (NBTTagCompound tag) {
+        NBTTagList slotList = tag.getTagList("Slots", Constants.NBT.TAG_COMPOUND);
+        for (int i = 0; i < slotList.tagCount(); i++) {
+            NBTTagCompound slotTag = slotList.getCompoundTagAt(i);
+            IDrawer drawer = getGroup().getDrawer(slotTag.getByte("Slot"));
+            if (drawer instanceof StandardDrawerGroup.DrawerData)
+                ((StandardDrawerGroup.DrawerData) drawer).deserializeNBT(slotTag);
+        }
+    }
+
     public static class Slot1 extends TileEntityDrawersStandard
     {
         private GroupData groupData = new GroupData(1);
@@ -207,6 +240,11 @@ public class TileEntityDrawersStandard extends TileEntityDrawers
             return new StandardDrawerData(this, slot);
         }
 
+        @Override
+        protected World getWorld () {
+            return TileEntityDrawersStandard.this.getWorld();
+        }
+
         @Override
         public boolean hasCapability (@Nonnull Capability<?> capability, @Nullable EnumFacing facing) {
             return capability == TileEntityDrawersStandard.DRAWER_ATTRIBUTES_CAPABILITY
@@ -243,17 +281,22 @@ public class TileEntityDrawersStandard extends TileEntityDrawers
             DrawerPopulatedEvent event = new DrawerPopulatedEvent(this);
             MinecraftForge.EVENT_BUS.post(event);
 
+            markFillRatioDirty(1 << slot);
+
             if (getWorld() != null && !getWorld().isRemote) {
                 markDirty();
-                markBlockForUpdate();
+                markDescriptionDirty(DESCRIPTION_DRAWERS, 1 << slot);
+                ControllerTracker.notifyNodeChanged(getWorld(), getPos());
             }
         }
 
         @Override
         protected void onAmountChanged () {
+            markFillRatioDirty(1 << slot);
             if (getWorld() != null && !getWorld().isRemote) {
                 syncClientCount(slot, getStoredItemCount());
                 markDirty();
+                ControllerTracker.notifyNodeAmountChanged(getWorld(), getPos());
             }
         }
     }
@@ -8,6 +8,7 @@ import com.jaquadro.minecraft.storagedrawers.capabilities.DrawerItemHandler;
 import com.jaquadro.minecraft.storagedrawers.capabilities.DrawerItemRepository;
 import com.jaquadro.minecraft.storagedrawers.inventory.ItemStackHelper;
 import com.jaquadro.minecraft.storagedrawers.util.CompactingHelper;
+import com.jaquadro.minecraft.storagedrawers.util.ItemPrototypePool;
 import com.jaquadro.minecraft.storagedrawers.util.ItemStackMatcher;
 import com.jaquadro.minecraft.storagedrawers.util.ItemStackOreMatcher;
 import net.minecraft.item.Item;
@@ -481,11 +482,9 @@ public class FractionalDrawerGroup extends TileDataShim implements IDrawerGroup
         }
 
         private void populateRawSlot (int slot, @Nonnull ItemStack itemPrototype, int rate) {
-            protoStack[slot] = itemPrototype;
+            protoStack[slot] = ItemPrototypePool.internPrototype(group.getWorld(), itemPrototype);
             convRate[slot] = rate;
-            matchers[slot] = attrs.isDictConvertible()
-                ? new ItemStackOreMatcher(protoStack[slot])
-                : new ItemStackMatcher(protoStack[slot]);
+            matchers[slot] = ItemPrototypePool.getMatcher(group.getWorld(), protoStack[slot], attrs.isDictConvertible());
         }
 
         @Override
@@ -528,12 +527,10 @@ public class FractionalDrawerGroup extends TileDataShim implements IDrawerGroup
                 NBTTagCompound slotTag = itemList.getCompoundTagAt(i);
                 int slot = slotTag.getByte("Slot");
 
-                protoStack[slot] = new ItemStack(slotTag.getCompoundTag("Item"));
+                protoStack[slot] = ItemPrototypePool.internPrototype(group.getWorld(), new ItemStack(slotTag.getCompoundTag("Item")));
                 convRate[slot] = slotTag.getByte("Conv");
 
-                matchers[slot] = attrs.isDictConvertible()
-                    ? new ItemStackOreMatcher(protoStack[slot])
-                    : new ItemStackMatcher(protoStack[slot]);
+                matchers[slot] = ItemPrototypePool.getMatcher(group.getWorld(), protoStack[slot], attrs.isDictConvertible());
             }
         }
 
@@ -567,19 +564,15 @@ public class FractionalDrawerGroup extends TileDataShim implements IDrawerGroup
                 if (slot.hasKey("Tags"))
                     stack.setTagCompound(slot.getCompoundTag("Tags"));
 
-                protoStack[i] = stack;
-                matchers[i] = attrs.isDictConvertible()
-                    ? new ItemStackOreMatcher(protoStack[i])
-                    : new ItemStackMatcher(protoStack[i]);
+                protoStack[i] = ItemPrototypePool.internPrototype(group.getWorld(), stack);
+                matchers[i] = ItemPrototypePool.getMatcher(group.getWorld(), protoStack[i], attrs.isDictConvertible());
             }
         }
 
         public void syncAttributes () {
             for (int i = 0; i < slotCount; i++) {
                 if (!protoStack[i].isEmpty()) {
-                    matchers[i] = attrs.isDictConvertible()
-                        ? new ItemStackOreMatcher(protoStack[i])
-                        : new ItemStackMatcher(protoStack[i]);
+                    matchers[i] = ItemPrototypePool.getMatcher(group.getWorld(), protoStack[i], attrs.isDictConvertible());
                 }
             }
         }
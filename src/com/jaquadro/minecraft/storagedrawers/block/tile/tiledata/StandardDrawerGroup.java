@@ -7,13 +7,14 @@ import com.jaquadro.minecraft.storagedrawers.api.storage.attribute.LockAttribute
 import com.jaquadro.minecraft.storagedrawers.capabilities.DrawerItemHandler;
 import com.jaquadro.minecraft.storagedrawers.capabilities.DrawerItemRepository;
 import com.jaquadro.minecraft.storagedrawers.inventory.ItemStackHelper;
+import com.jaquadro.minecraft.storagedrawers.util.ItemPrototypePool;
 import com.jaquadro.minecraft.storagedrawers.util.ItemStackMatcher;
-import com.jaquadro.minecraft.storagedrawers.util.ItemStackOreMatcher;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.world.World;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.CapabilityInject;
 import net.minecraftforge.common.capabilities.ICapabilityProvider;
@@ -144,6 +145,8 @@ public abstract class StandardDrawerGroup extends TileDataShim implements IDrawe
 
     }
 
+    protected World getWorld () { return null; }
+
     public void syncSlots () {
         int index = 0;
         for (int i = 0; i < slots.length; i++) {
@@ -218,14 +221,11 @@ public abstract class StandardDrawerGroup extends TileDataShim implements IDrawe
                 return this;
             }
 
-            protoStack = itemPrototype;
-            protoStack.setCount(1);
+            itemPrototype.setCount(1);
+            protoStack = ItemPrototypePool.internPrototype(group.getWorld(), itemPrototype);
             count = 0;
 
-            if (attrs.isDictConvertible())
-                matcher = new ItemStackOreMatcher(protoStack);
-            else
-                matcher = new ItemStackMatcher(protoStack);
+            matcher = ItemPrototypePool.getMatcher(group.getWorld(), protoStack, attrs.isDictConvertible());
 
             group.syncSlots();
             if (notify)
@@ -236,14 +236,11 @@ public abstract class StandardDrawerGroup extends TileDataShim implements IDrawe
 
         protected IDrawer setStoredItemRaw (@Nonnull ItemStack itemPrototype) {
             itemPrototype = ItemStackHelper.getItemPrototype(itemPrototype);
-            protoStack = itemPrototype;
-            protoStack.setCount(1);
+            itemPrototype.setCount(1);
+            protoStack = ItemPrototypePool.internPrototype(group.getWorld(), itemPrototype);
             count = 0;
 
-            if (attrs.isDictConvertible())
-                matcher = new ItemStackOreMatcher(protoStack);
-            else
-                matcher = new ItemStackMatcher(protoStack);
+            matcher = ItemPrototypePool.getMatcher(group.getWorld(), protoStack, attrs.isDictConvertible());
 
             return this;
         }
@@ -444,12 +441,8 @@ public abstract class StandardDrawerGroup extends TileDataShim implements IDrawe
         }
 
         public void syncAttributes () {
-            if (!protoStack.isEmpty()) {
-                if (attrs.isDictConvertible())
-                    matcher = new ItemStackOreMatcher(protoStack);
-                else
-                    matcher = new ItemStackMatcher(protoStack);
-            }
+            if (!protoStack.isEmpty())
+                matcher = ItemPrototypePool.getMatcher(group.getWorld(), protoStack, attrs.isDictConvertible());
         }
 
         protected int getStackCapacity() {
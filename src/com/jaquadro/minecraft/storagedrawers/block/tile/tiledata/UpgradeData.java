@@ -199,6 +199,7 @@ public class UpgradeData extends TileDataShim
 
     private void syncStorageMultiplier () {
         ConfigManager config = StorageDrawers.config;
+        int previousMultiplier = storageMultiplier;
         storageMultiplier = 0;
 
         for (ItemStack stack : upgrades) {
@@ -210,6 +211,9 @@ public class UpgradeData extends TileDataShim
 
         if (storageMultiplier == 0)
             storageMultiplier = config.getStorageUpgradeMultiplier(1);
+
+        if (storageMultiplier != previousMultiplier)
+            onStorageMultiplierChanged();
     }
 
     private void syncStatusLevel () {
@@ -270,4 +274,6 @@ public class UpgradeData extends TileDataShim
     }
 
     protected void onUpgradeChanged (ItemStack oldUpgrade, ItemStack newUpgrade) { }
+
+    protected void onStorageMultiplierChanged () { }
 }
@@ -3,16 +3,27 @@ package com.jaquadro.minecraft.storagedrawers.capabilities;
 import com.jaquadro.minecraft.storagedrawers.api.capabilities.IItemRepository;
 import com.jaquadro.minecraft.storagedrawers.api.storage.IDrawer;
 import com.jaquadro.minecraft.storagedrawers.api.storage.IDrawerGroup;
+import com.jaquadro.minecraft.storagedrawers.util.ItemIdentity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.NonNullList;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
 import java.util.function.Predicate;
 
 public class DrawerItemRepository implements IItemRepository
 {
     protected IDrawerGroup group;
 
+    // Slots already taken by earlier entries of the simulated batch insert in progress, or null outside of one
+    protected Set<Integer> batchClaimedSlots;
+
     public DrawerItemRepository (IDrawerGroup group) {
         this.group = group;
     }
@@ -47,6 +58,8 @@ public class DrawerItemRepository implements IItemRepository
                 continue;
             if (!testPredicateInsert(drawer, stack, predicate))
                 continue;
+            if (simulate && batchClaimedSlots != null && !batchClaimedSlots.add(slot))
+                continue;
 
             boolean empty = drawer.isEmpty();
             if (empty && !simulate)
@@ -88,6 +101,95 @@ public class DrawerItemRepository implements IItemRepository
             : stackResult(stack, amount - remaining);
     }
 
+    @Nonnull
+    @Override
+    public NonNullList<ItemStack> insertItems (@Nonnull List<ItemStack> stacks, boolean simulate, Predicate<ItemStack> predicate) {
+        NonNullList<ItemStack> remainders = NonNullList.withSize(stacks.size(), ItemStack.EMPTY);
+
+        // A simulation leaves every drawer as it was, so the drawers each item group would fill are claimed for the
+        // rest of the batch.  Otherwise two different items could both be counted into the same empty drawer.
+        boolean outerBatch = simulate && batchClaimedSlots == null;
+        if (outerBatch)
+            batchClaimedSlots = new HashSet<>();
+
+        try {
+            insertGroups(stacks, remainders, simulate, predicate);
+        }
+        finally {
+            if (outerBatch)
+                batchClaimedSlots = null;
+        }
+
+        return remainders;
+    }
+
+    private void insertGroups (@Nonnull List<ItemStack> stacks, NonNullList<ItemStack> remainders, boolean simulate, Predicate<ItemStack> predicate) {
+        for (List<Integer> entries : groupBatch(stacks.size(), stacks::get)) {
+            ItemStack stack = stacks.get(entries.get(0));
+
+            long total = 0;
+            for (int i : entries)
+                total += stacks.get(i).getCount();
+
+            int amount = (int)Math.min(total, Integer.MAX_VALUE);
+            long accepted = amount - insertItem(stackResult(stack, amount), simulate, predicate).getCount();
+
+            for (int i : entries) {
+                ItemStack entry = stacks.get(i);
+                int taken = (int)Math.min(entry.getCount(), accepted);
+                accepted -= taken;
+
+                if (taken < entry.getCount())
+                    remainders.set(i, stackResult(entry, entry.getCount() - taken));
+            }
+        }
+    }
+
+    @Nonnull
+    @Override
+    public NonNullList<ItemStack> extractItems (@Nonnull List<ItemRequest> requests, boolean simulate, Predicate<ItemStack> predicate) {
+        NonNullList<ItemStack> results = NonNullList.withSize(requests.size(), ItemStack.EMPTY);
+
+        for (List<Integer> entries : groupBatch(requests.size(), i -> requests.get(i).itemPrototype)) {
+            ItemStack stack = requests.get(entries.get(0)).itemPrototype;
+
+            long total = 0;
+            for (int i : entries)
+                total += requests.get(i).amount;
+
+            ItemStack extracted = extractItem(stack, (int)Math.min(total, Integer.MAX_VALUE), simulate, predicate);
+            long available = extracted.getCount();
+
+            for (int i : entries) {
+                if (available == 0)
+                    break;
+
+                int taken = (int)Math.min(requests.get(i).amount, available);
+                available -= taken;
+
+                if (taken > 0)
+                    results.set(i, stackResult(extracted, taken));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Groups batch entries holding the same item, keeping both the groups and the entries within each group in
+     * list order.  Empty entries are left out.
+     */
+    protected Iterable<List<Integer>> groupBatch (int size, IntFunction<ItemStack> entry) {
+        Map<ItemIdentity, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            ItemStack stack = entry.apply(i);
+            if (!stack.isEmpty())
+                groups.computeIfAbsent(new ItemIdentity(stack), k -> new ArrayList<>()).add(i);
+        }
+
+        return groups.values();
+    }
+
     @Override
     public int getStoredItemCount (@Nonnull ItemStack stack, Predicate<ItemStack> predicate) {
         long count = 0;
@@ -2,6 +2,7 @@ package com.jaquadro.minecraft.storagedrawers.config;
 
 import com.jaquadro.minecraft.chameleon.util.ItemResourceLocation;
 import com.jaquadro.minecraft.storagedrawers.StorageDrawers;
+import com.jaquadro.minecraft.storagedrawers.util.ItemIdentity;
 import net.minecraft.init.Blocks;
 import net.minecraft.init.Items;
 import net.minecraft.item.ItemStack;
@@ -10,7 +11,9 @@ import net.minecraftforge.oredict.OreDictionary;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class CompTierRegistry
 {
@@ -29,6 +32,10 @@ public class CompTierRegistry
     }
 
     private List<Record> records = new ArrayList<Record>();
+
+    // First record in registration order for each upper and lower item
+    private Map<ItemIdentity, Record> upperIndex = new HashMap<>();
+    private Map<ItemIdentity, Record> lowerIndex = new HashMap<>();
     private List<String> pendingRules = new ArrayList<String>();
     private boolean initialized;
 
@@ -77,6 +84,8 @@ public class CompTierRegistry
         r.lower.setCount(1);
 
         records.add(r);
+        upperIndex.putIfAbsent(new ItemIdentity(r.upper), r);
+        lowerIndex.putIfAbsent(new ItemIdentity(r.lower), r);
 
         return true;
     }
@@ -115,48 +124,46 @@ public class CompTierRegistry
     }
 
     public boolean unregisterUpperTarget (@Nonnull ItemStack stack) {
-        for (Record r : records) {
-            if (ItemStack.areItemStacksEqual(stack, r.upper)) {
-                records.remove(r);
-                return true;
-            }
-        }
+        // Record stacks all have a count of 1, so the first record with an equal item is the only candidate
+        Record r = upperIndex.get(new ItemIdentity(stack));
+        if (r == null || !ItemStack.areItemStacksEqual(stack, r.upper))
+            return false;
 
-        return false;
+        remove(r);
+        return true;
     }
 
     public boolean unregisterLowerTarget (@Nonnull ItemStack stack) {
+        Record r = lowerIndex.get(new ItemIdentity(stack));
+        if (r == null || !ItemStack.areItemStacksEqual(stack, r.lower))
+            return false;
+
+        remove(r);
+        return true;
+    }
+
+    private void remove (Record record) {
+        records.remove(record);
+
+        upperIndex.clear();
+        lowerIndex.clear();
         for (Record r : records) {
-            if (ItemStack.areItemStacksEqual(stack, r.lower)) {
-                records.remove(r);
-                return true;
-            }
+            upperIndex.putIfAbsent(new ItemIdentity(r.upper), r);
+            lowerIndex.putIfAbsent(new ItemIdentity(r.lower), r);
         }
-
-        return false;
     }
 
     public Record findHigherTier (@Nonnull ItemStack stack) {
         if (stack.isEmpty())
             return null;
 
-        for (Record r : records) {
-            if (stack.isItemEqual(r.lower) && ItemStack.areItemStackTagsEqual(stack, r.lower))
-                return r;
-        }
-
-        return null;
+        return lowerIndex.get(new ItemIdentity(stack));
     }
 
     public Record findLowerTier (@Nonnull ItemStack stack) {
         if (stack.isEmpty())
             return null;
 
-        for (Record r : records) {
-            if (stack.isItemEqual(r.upper) && ItemStack.areItemStackTagsEqual(stack, r.upper))
-                return r;
-        }
-
-        return null;
+        return upperIndex.get(new ItemIdentity(stack));
     }
 }
@@ -79,10 +79,14 @@ public class ConfigManager
         public boolean stackRemainderWaila;
         public boolean registerExtraCompRules;
         public boolean defaultQuantify;
+        public boolean controllerIncrementalTopology;
+        public boolean compactCountSync;
         public String[] compRules;
         public String[] oreWhitelist;
         public String[] oreBlacklist;
 
+        public int controllerScanBudget;
+
         public int level2Mult;
         public int level3Mult;
         public int level4Mult;
@@ -156,6 +160,9 @@ public class ConfigManager
             "Writes additional log messages while using the mod.  Mainly for debug purposes.  Should be kept disabled unless instructed otherwise.")
             .setLanguageKey(LANG_PREFIX + "prop.enableDebugLogging").getBoolean();
         cache.defaultQuantify = config.get(Configuration.CATEGORY_GENERAL, "defaultQuantify", false).setLanguageKey(LANG_PREFIX + "prop.defaultQuantify").getBoolean();
+        cache.compactCountSync = config.get(Configuration.CATEGORY_GENERAL, "compactCountSync", true,
+            "Sends drawer count updates in a compact, delta-encoded packet.  Disable to fall back to the original fixed-width packet.")
+            .setLanguageKey(LANG_PREFIX + "prop.compactCountSync").getBoolean();
 
         //cache.enableAE2Integration = config.get(sectionIntegration.getQualifiedName(), "enableAE2", true).setLanguageKey(LANG_PREFIX + "integration.enableAE2").setRequiresMcRestart(true).getBoolean();
         cache.enableWailaIntegration = config.get(sectionIntegration.getQualifiedName(), "enableWaila", true).setLanguageKey(LANG_PREFIX + "integration.enableWaila").setRequiresMcRestart(true).getBoolean();
@@ -212,6 +219,12 @@ public class ConfigManager
 
         config.get(sectionBlocksController.getQualifiedName(), "enabled", true).setLanguageKey(LANG_PREFIX + "prop.enabled").setRequiresMcRestart(true);
         config.get(sectionBlocksController.getQualifiedName(), "range", 12).setLanguageKey(LANG_PREFIX + "prop.controllerRange");
+        cache.controllerIncrementalTopology = config.get(sectionBlocksController.getQualifiedName(), "incrementalTopology", true,
+            "Updates controller networks as networked blocks are placed or broken, instead of periodically rescanning the whole network.")
+            .setLanguageKey(LANG_PREFIX + "prop.controllerIncrementalTopology").getBoolean();
+        cache.controllerScanBudget = config.get(sectionBlocksController.getQualifiedName(), "scanBudget", 4096,
+            "Maximum number of block positions a periodic network rescan examines per tick.  Larger networks are rescanned over several ticks.  0 rescans in a single tick.", 0, Integer.MAX_VALUE)
+            .setLanguageKey(LANG_PREFIX + "prop.controllerScanBudget").getInt();
 
         config.get(sectionBlocksTrim.getQualifiedName(), "enabled", true).setLanguageKey(LANG_PREFIX + "prop.enabled").setRequiresMcRestart(true);
         config.get(sectionBlocksTrim.getQualifiedName(), "recipeOutput", 4).setLanguageKey(LANG_PREFIX + "prop.recipeOutput").setRequiresMcRestart(true);
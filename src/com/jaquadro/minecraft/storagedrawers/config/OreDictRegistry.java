@@ -1,12 +1,14 @@
 package com.jaquadro.minecraft.storagedrawers.config;
 
 import com.jaquadro.minecraft.storagedrawers.StorageDrawers;
+import com.jaquadro.minecraft.storagedrawers.util.OreEquivalenceTable;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.oredict.OreDictionary;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -17,8 +19,11 @@ public class OreDictRegistry
     private Set<String> whitelist = new HashSet<>();
     private List<String> blacklistPrefix = new ArrayList<>();
 
-    private Set<String> blacklistCache = new HashSet<>();
-    private Set<String> graylistCache = new HashSet<>();
+    // Validity of every registered ore name, indexed by ore id.  Null when the lists or the ore dictionary have
+    // changed since it was built.
+    private volatile boolean[] validity;
+
+    private final OreEquivalenceTable equivalenceTable = new OreEquivalenceTable(this);
 
     public OreDictRegistry () {
         addBlacklist("logWood");
@@ -80,8 +85,7 @@ public class OreDictRegistry
         if (entry == null)
             return false;
 
-        blacklistCache.add(entry);
-        graylistCache.remove(entry);
+        invalidate();
 
         return blacklist.add(entry);
     }
@@ -93,7 +97,7 @@ public class OreDictRegistry
         if (blacklistPrefix.contains(entry))
             return false;
 
-        graylistCache.clear();
+        invalidate();
 
         return blacklistPrefix.add(entry);
     }
@@ -102,32 +106,40 @@ public class OreDictRegistry
         if (entry == null)
             return false;
 
+        invalidate();
+
         return whitelist.add(entry);
     }
 
     public boolean removeBlacklist (String entry) {
-        blacklistCache.remove(entry);
+        invalidate();
 
         return blacklist.remove(entry);
     }
 
     public boolean removeBlacklistPrefix (String entry) {
+        invalidate();
+
         return blacklistPrefix.remove(entry);
     }
 
     public boolean removeWhitelist (String entry) {
+        invalidate();
+
         return whitelist.remove(entry);
     }
 
+    public OreEquivalenceTable getEquivalenceTable () {
+        return equivalenceTable;
+    }
+
     public boolean isEntryBlacklisted (String entry) {
-        if (blacklistCache.contains(entry))
+        if (blacklist.contains(entry))
             return true;
 
         for (String aBlacklistPrefix : blacklistPrefix) {
-            if (entry.startsWith(aBlacklistPrefix)) {
-                blacklistCache.add(entry);
+            if (entry.startsWith(aBlacklistPrefix))
                 return true;
-            }
         }
 
         return false;
@@ -138,22 +150,49 @@ public class OreDictRegistry
     }
 
     public boolean isEntryValid (String entry) {
-        if (graylistCache.contains(entry))
-            return true;
+        // Checked first so that looking up an unknown name doesn't register it
+        if (!OreDictionary.doesOreNameExist(entry))
+            return whitelist.contains(entry);
 
-        if (!whitelist.contains(entry)) {
-            if (isEntryBlacklisted(entry))
-                return false;
+        return isEntryValid(OreDictionary.getOreID(entry));
+    }
 
-            if (!isValidForEquiv(entry)) {
-                blacklistCache.add(entry);
-                return false;
-            }
+    public boolean isEntryValid (int oreId) {
+        boolean[] current = validity;
+        if (current == null || oreId >= current.length)
+            current = rebuild();
+
+        return oreId >= 0 && oreId < current.length && current[oreId];
+    }
+
+    /**
+     * Marks the validity table stale after the ore dictionary or one of the lists changed.  It is rebuilt on the
+     * next lookup.
+     */
+    public void invalidate () {
+        validity = null;
+        equivalenceTable.invalidate();
+    }
+
+    /**
+     * Recomputes the validity of every registered ore name, such as after a script reload.
+     */
+    public synchronized boolean[] rebuild () {
+        String[] oreNames = OreDictionary.getOreNames();
+        boolean[] built = new boolean[oreNames.length];
+
+        for (String oreName : oreNames) {
+            int oreId = OreDictionary.getOreID(oreName);
+            if (oreId >= built.length)
+                built = Arrays.copyOf(built, oreId + 1);
+
+            built[oreId] = whitelist.contains(oreName) || (!isEntryBlacklisted(oreName) && isValidForEquiv(oreName));
         }
 
-        graylistCache.add(entry);
+        validity = built;
+        equivalenceTable.invalidate();
 
-        return true;
+        return built;
     }
 
     private String getModId (Item item) {
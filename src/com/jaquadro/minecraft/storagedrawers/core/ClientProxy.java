@@ -4,10 +4,13 @@ import com.jaquadro.minecraft.chameleon.Chameleon;
 import com.jaquadro.minecraft.chameleon.resources.IconRegistry;
 import com.jaquadro.minecraft.storagedrawers.StorageDrawers;
 import com.jaquadro.minecraft.storagedrawers.network.BoolConfigUpdateMessage;
+import com.jaquadro.minecraft.storagedrawers.network.ClientCountInbox;
 import net.minecraft.block.Block;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraftforge.fml.client.FMLClientHandler;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.network.FMLNetworkEvent;
 
 public class ClientProxy extends CommonProxy
 {
@@ -26,6 +29,17 @@ public class ClientProxy extends CommonProxy
         }
     }
 
+    @SubscribeEvent
+    public void onRenderTick (TickEvent.RenderTickEvent event) {
+        if (event.phase == TickEvent.Phase.START)
+            ClientCountInbox.drain();
+    }
+
+    @SubscribeEvent
+    public void onClientDisconnect (FMLNetworkEvent.ClientDisconnectionFromServerEvent event) {
+        ClientCountInbox.clear();
+    }
+
     @SubscribeEvent
     public void onEntityJoinWorldEvent(net.minecraftforge.event.entity.EntityJoinWorldEvent event) {
         if (!event.getEntity().getEntityWorld().isRemote || !(event.getEntity() instanceof EntityPlayer))
@@ -2,7 +2,11 @@ package com.jaquadro.minecraft.storagedrawers.core;
 
 import com.jaquadro.minecraft.storagedrawers.StorageDrawers;
 import com.jaquadro.minecraft.storagedrawers.api.capabilities.IItemRepository;
+import com.jaquadro.minecraft.storagedrawers.api.storage.IDrawerGroup;
+import com.jaquadro.minecraft.storagedrawers.block.tile.TileEntityDrawers;
 import com.jaquadro.minecraft.storagedrawers.capabilities.CapabilityItemRepository;
+import com.jaquadro.minecraft.storagedrawers.util.CompactingTierGraph;
+import com.jaquadro.minecraft.storagedrawers.util.ItemPrototypePool;
 import net.minecraft.command.CommandBase;
 import net.minecraft.command.CommandException;
 import net.minecraft.command.ICommandSender;
@@ -16,10 +20,12 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.text.TextComponentString;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 import net.minecraftforge.items.CapabilityItemHandler;
 import net.minecraftforge.items.IItemHandler;
 
 import java.util.Arrays;
+import java.util.Map;
 
 public class CommandDebug extends CommandBase
 {
@@ -45,6 +51,58 @@ public class CommandDebug extends CommandBase
                 simulateOp(server, mp, Arrays.copyOfRange(args, 1, args.length));
             }
         }
+        else if (args[0].equals("tiers"))
+            tiersOp(sender, Arrays.copyOfRange(args, 1, args.length));
+        else if (args[0].equals("memory"))
+            memoryOp(server, sender);
+    }
+
+    private void memoryOp (MinecraftServer server, ICommandSender sender) {
+        Map<World, ItemPrototypePool> pools = ItemPrototypePool.getPools();
+
+        for (WorldServer world : server.worlds) {
+            int drawerCount = 0;
+            int slotCount = 0;
+
+            for (TileEntity tile : world.loadedTileEntityList) {
+                if (!(tile instanceof TileEntityDrawers))
+                    continue;
+
+                drawerCount++;
+                IDrawerGroup group = ((TileEntityDrawers) tile).getGroup();
+                for (int i = 0; i < group.getDrawerCount(); i++) {
+                    if (!group.getDrawer(i).getStoredItemPrototype().isEmpty())
+                        slotCount++;
+                }
+            }
+
+            ItemPrototypePool pool = pools.get(world);
+            int prototypeCount = (pool != null) ? pool.getPrototypeCount() : 0;
+            int matcherCount = (pool != null) ? pool.getMatcherCount() : 0;
+
+            sendMessage(sender, "Dim " + world.provider.getDimension() + ": " + drawerCount + " drawers, " + slotCount
+                + " filled slots sharing " + prototypeCount + " prototypes and " + matcherCount + " matchers");
+        }
+    }
+
+    private void tiersOp (ICommandSender sender, String[] args) {
+        CompactingTierGraph graph = StorageDrawers.compTierGraph;
+
+        if (args.length > 0 && args[0].equals("rebuild")) {
+            long startTime = System.nanoTime();
+            graph.rebuild();
+            sendMessage(sender, "Rebuilt " + graph.getTierCount() + " compacting tiers in " + ((System.nanoTime() - startTime) / 1000000) + "ms");
+            return;
+        }
+
+        if (!graph.isBuilt()) {
+            sendMessage(sender, "Compacting tier graph not built");
+            return;
+        }
+
+        sendMessage(sender, "Compacting tiers: " + graph.getTierCount() + (graph.isLoadedFromCache() ? " (loaded from cache)" : " (discovered)"));
+        sendMessage(sender, "Fingerprint: " + graph.getFingerprint());
+        sendMessage(sender, "Cache file: " + graph.getCacheFile());
     }
 
     private void simulateOp (MinecraftServer server, EntityPlayerMP player, String[] args) {
@@ -11,6 +11,7 @@ import com.jaquadro.minecraft.storagedrawers.api.storage.attribute.LockAttribute
 import com.jaquadro.minecraft.storagedrawers.block.BlockDrawers;
 import com.jaquadro.minecraft.storagedrawers.block.tile.TileEntityDrawers;
 import com.jaquadro.minecraft.storagedrawers.capabilities.CapabilityDrawerAttributes;
+import com.jaquadro.minecraft.storagedrawers.network.DrawerSyncQueue;
 import com.jaquadro.minecraft.storagedrawers.security.SecurityManager;
 import mcp.mobius.waila.api.IWailaConfigHandler;
 import mcp.mobius.waila.api.IWailaDataAccessor;
@@ -63,6 +64,7 @@ public class Waila extends IntegrationModule
 
         registrar.registerBodyProvider(provider, BlockDrawers.class);
         registrar.registerStackProvider(provider, BlockDrawers.class);
+        registrar.registerNBTProvider(provider, BlockDrawers.class);
 
         try {
             Object configHandler = methInstance.invoke(null);
@@ -171,7 +173,10 @@ public class Waila extends IntegrationModule
 
         @Override
         public NBTTagCompound getNBTData(EntityPlayerMP player, TileEntity te, NBTTagCompound tag, World world, BlockPos pos) {
-            return null;
+            if (te instanceof TileEntityDrawers)
+                DrawerSyncQueue.watchAsWailaTarget(player, (TileEntityDrawers) te);
+
+            return tag;
         }
     }
 }
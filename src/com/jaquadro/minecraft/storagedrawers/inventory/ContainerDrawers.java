@@ -3,9 +3,12 @@ package com.jaquadro.minecraft.storagedrawers.inventory;
 import com.jaquadro.minecraft.storagedrawers.block.tile.TileEntityDrawers;
 import com.jaquadro.minecraft.storagedrawers.client.renderer.StorageRenderItem;
 import com.jaquadro.minecraft.storagedrawers.item.ItemUpgrade;
+import com.jaquadro.minecraft.storagedrawers.network.DrawerSyncQueue;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.inventory.Container;
+import net.minecraft.inventory.IContainerListener;
 import net.minecraft.inventory.IInventory;
 import net.minecraft.inventory.Slot;
 import net.minecraft.item.ItemStack;
@@ -35,6 +38,7 @@ public class ContainerDrawers extends Container
     @SideOnly(Side.CLIENT)
     public StorageRenderItem activeRenderItem;
 
+    private TileEntityDrawers tileEntity;
     private boolean isRemote;
 
     public ContainerDrawers (InventoryPlayer playerInventory, TileEntityDrawers tileEntity) {
@@ -58,9 +62,23 @@ public class ContainerDrawers extends Container
         for (int i = 0; i < 9; i++)
             hotbarSlots.add(addSlotToContainer(new Slot(playerInventory, i, InventoryX + i * 18, HotbarY)));
 
+        this.tileEntity = tileEntity;
         isRemote = tileEntity.getWorld().isRemote;
     }
 
+    public TileEntityDrawers getTileEntity () {
+        return tileEntity;
+    }
+
+    @Override
+    public void addListener (IContainerListener listener) {
+        super.addListener(listener);
+
+        // Count updates are only sent for drawers a player is watching, so bring the GUI up to date on open
+        if (!isRemote && listener instanceof EntityPlayerMP)
+            DrawerSyncQueue.sendSnapshot((EntityPlayerMP) listener, tileEntity);
+    }
+
     public void setLastAccessedItem (ItemStack stack) {
         if (isRemote && activeRenderItem != null)
             activeRenderItem.overrideStack = stack;
@@ -6,6 +6,7 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraftforge.common.capabilities.CapabilityDispatcher;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.lang.reflect.Field;
 
 public class ItemStackHelper
@@ -48,6 +49,19 @@ public class ItemStackHelper
         }
     }
 
+    @Nullable
+    public static NBTTagCompound getCapabilityTag (@Nonnull ItemStack stack) {
+        if (!initialized)
+            return null;
+
+        try {
+            CapabilityDispatcher capabilities = (CapabilityDispatcher) capabilitiesField.get(stack);
+            return capabilities != null ? capabilities.serializeNBT() : null;
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
     @Nonnull
     public static ItemStack encodeItemStack (@Nonnull ItemStack stack) {
         if (!stack.isEmpty())
@@ -0,0 +1,102 @@
+package com.jaquadro.minecraft.storagedrawers.network;
+
+import com.jaquadro.minecraft.storagedrawers.block.tile.TileEntityDrawers;
+import net.minecraft.client.Minecraft;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-side inbox for drawer count updates.  Count messages are posted from the network thread, keeping only
+ * the latest count for each drawer slot, and the client thread applies what has accumulated once per frame.
+ *
+ * Each update is stamped with its arrival order, so a description update that carries counts itself can discard
+ * the updates that arrived before it.
+ */
+@SideOnly(Side.CLIENT)
+public class ClientCountInbox
+{
+    private static final Map<Key, Update> inbox = new ConcurrentHashMap<>();
+    private static final AtomicLong sequence = new AtomicLong();
+
+    public static void post (BlockPos pos, int slot, int count) {
+        inbox.put(new Key(pos, slot), new Update(sequence.incrementAndGet(), count));
+    }
+
+    public static long nextSequence () {
+        return sequence.incrementAndGet();
+    }
+
+    /**
+     * Drops pending updates for the first slotCount slots at pos that arrived before the given sequence number.
+     */
+    public static void discardBefore (BlockPos pos, int slotCount, long seq) {
+        for (int slot = 0; slot < slotCount; slot++) {
+            Key key = new Key(pos, slot);
+            Update update = inbox.get(key);
+            if (update != null && update.seq < seq)
+                inbox.remove(key, update);
+        }
+    }
+
+    public static void drain () {
+        if (inbox.isEmpty())
+            return;
+
+        World world = Minecraft.getMinecraft().world;
+        for (Map.Entry<Key, Update> entry : inbox.entrySet()) {
+            if (!inbox.remove(entry.getKey(), entry.getValue()) || world == null)
+                continue;
+
+            TileEntity tileEntity = world.getTileEntity(entry.getKey().pos);
+            if (tileEntity instanceof TileEntityDrawers)
+                ((TileEntityDrawers) tileEntity).clientUpdateCount(entry.getKey().slot, entry.getValue().count);
+        }
+    }
+
+    public static void clear () {
+        inbox.clear();
+    }
+
+    private static class Key
+    {
+        final BlockPos pos;
+        final int slot;
+
+        Key (BlockPos pos, int slot) {
+            this.pos = pos;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals (Object obj) {
+            if (!(obj instanceof Key))
+                return false;
+
+            Key other = (Key) obj;
+            return slot == other.slot && pos.equals(other.pos);
+        }
+
+        @Override
+        public int hashCode () {
+            return 31 * pos.hashCode() + slot;
+        }
+    }
+
+    private static class Update
+    {
+        final long seq;
+        final int count;
+
+        Update (long seq, int count) {
+            this.seq = seq;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.jaquadro.minecraft.storagedrawers.network;
+
+import com.jaquadro.minecraft.storagedrawers.StorageDrawers;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import org.apache.logging.log4j.Level;
+
+import java.util.*;
+
+/**
+ * Compact form of {@link CountUpdateMessage}.  Entries are grouped by chunk, with positions stored relative to
+ * their chunk, and counts are sent as zig-zag varint deltas from the last count sent to the same player for the
+ * same slot.  Both ends keep a {@link Baseline} of those counts; the server asks the client to clear its copy
+ * whenever it starts a new one.
+ *
+ * Layout: version byte, flags byte, varint chunk count, then per chunk: zig-zag varint chunk x and z, varint entry
+ * count, and per entry: packed local x/z byte, y byte, slot byte, varlong count code.  A count code holds an
+ * absolute count shifted left by one, or a zig-zag delta shifted left by one with the low bit set.
+ */
+public class CountBatchMessage implements IMessage
+{
+    private static final int VERSION = 1;
+    private static final int FLAG_RESET = 1;
+
+    private int flags;
+    private List<Entry> entries = new ArrayList<>();
+
+    private boolean failed;
+
+    public CountBatchMessage () { }
+
+    /**
+     * Encodes the entries of a count update against the given baseline, which is updated to the sent counts.
+     * Must be called on the thread that owns the baseline.
+     */
+    public CountBatchMessage (Baseline baseline, CountUpdateMessage message) {
+        if (baseline.resetPending) {
+            baseline.clear();
+            baseline.resetPending = false;
+            flags |= FLAG_RESET;
+        }
+
+        for (CountUpdateMessage.Entry entry : message.getEntries()) {
+            BlockPos pos = new BlockPos(entry.x, entry.y, entry.z);
+            int previous = baseline.get(pos, entry.slot);
+
+            long code = (previous < 0)
+                ? (long)entry.count << 1
+                : (zigZag((long)entry.count - previous) << 1) | 1;
+
+            baseline.set(pos, entry.slot, entry.count);
+            entries.add(new Entry(pos, entry.slot, code));
+        }
+    }
+
+    @Override
+    public void fromBytes (ByteBuf buf) {
+        try {
+            int version = buf.readUnsignedByte();
+            if (version != VERSION) {
+                failed = true;
+                StorageDrawers.log.error("CountBatchMessage: Unsupported packet version " + version);
+                return;
+            }
+
+            flags = buf.readUnsignedByte();
+
+            int chunkCount = readVarInt(buf);
+            for (int i = 0; i < chunkCount; i++) {
+                int chunkX = (int)unZigZag(readVarLong(buf));
+                int chunkZ = (int)unZigZag(readVarLong(buf));
+
+                int entryCount = readVarInt(buf);
+                for (int j = 0; j < entryCount; j++) {
+                    int xz = buf.readUnsignedByte();
+                    int y = buf.readUnsignedByte();
+                    int slot = buf.readUnsignedByte();
+                    long code = readVarLong(buf);
+
+                    BlockPos pos = new BlockPos((chunkX << 4) | (xz >> 4), y, (chunkZ << 4) | (xz & 15));
+                    entries.add(new Entry(pos, slot, code));
+                }
+            }
+        }
+        catch (IndexOutOfBoundsException e) {
+            failed = true;
+            StorageDrawers.log.error("CountBatchMessage: Unexpected end of packet.\nMessage: " + ByteBufUtil.hexDump(buf, 0, buf.writerIndex()), e);
+        }
+    }
+
+    @Override
+    public void toBytes (ByteBuf buf) {
+        Map<Long, List<Entry>> chunks = new LinkedHashMap<>();
+        for (Entry entry : entries)
+            chunks.computeIfAbsent(ChunkPos.asLong(entry.pos.getX() >> 4, entry.pos.getZ() >> 4), k -> new ArrayList<>()).add(entry);
+
+        buf.writeByte(VERSION);
+        buf.writeByte(flags);
+
+        writeVarLong(buf, chunks.size());
+        for (List<Entry> chunkEntries : chunks.values()) {
+            BlockPos first = chunkEntries.get(0).pos;
+            writeVarLong(buf, zigZag(first.getX() >> 4));
+            writeVarLong(buf, zigZag(first.getZ() >> 4));
+
+            writeVarLong(buf, chunkEntries.size());
+            for (Entry entry : chunkEntries) {
+                buf.writeByte(((entry.pos.getX() & 15) << 4) | (entry.pos.getZ() & 15));
+                buf.writeByte(entry.pos.getY());
+                buf.writeByte(entry.slot);
+                writeVarLong(buf, entry.code);
+            }
+        }
+    }
+
+    static long zigZag (long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag (long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarLong (ByteBuf buf, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buf.writeByte((int)(value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        buf.writeByte((int)value);
+    }
+
+    static long readVarLong (ByteBuf buf) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = buf.readUnsignedByte();
+            value |= (long)(b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+
+        throw new IndexOutOfBoundsException("VarLong too long");
+    }
+
+    static int readVarInt (ByteBuf buf) {
+        long value = readVarLong(buf);
+        if (value < 0 || value > Integer.MAX_VALUE)
+            throw new IndexOutOfBoundsException("VarInt out of range");
+
+        return (int)value;
+    }
+
+    private static class Entry
+    {
+        final BlockPos pos;
+        final int slot;
+        final long code;
+
+        Entry (BlockPos pos, int slot, long code) {
+            this.pos = pos;
+            this.slot = slot;
+            this.code = code;
+        }
+    }
+
+    /**
+     * The last count sent for each drawer slot, as seen by one connection.
+     */
+    public static class Baseline
+    {
+        private static final int MAX_POSITIONS = 8192;
+
+        private final Map<BlockPos, int[]> counts = new HashMap<>();
+        private boolean resetPending = true;
+
+        int get (BlockPos pos, int slot) {
+            int[] slots = counts.get(pos);
+            if (slots == null || slot >= slots.length)
+                return -1;
+
+            return slots[slot];
+        }
+
+        void set (BlockPos pos, int slot, int count) {
+            int[] slots = counts.get(pos);
+            if (slots == null || slot >= slots.length) {
+                if (slots == null && counts.size() >= MAX_POSITIONS)
+                    return;
+
+                int[] grown = new int[slot + 1];
+                Arrays.fill(grown, -1);
+                if (slots != null)
+                    System.arraycopy(slots, 0, grown, 0, slots.length);
+
+                slots = grown;
+                counts.put(pos, slots);
+            }
+
+            slots[slot] = count;
+        }
+
+        void clear () {
+            counts.clear();
+        }
+
+        /**
+         * Starts a new baseline with the next message, such as when the player changes dimension.
+         */
+        public void reset () {
+            resetPending = true;
+        }
+    }
+
+    @SideOnly(Side.CLIENT)
+    public static class Handler implements IMessageHandler<CountBatchMessage, IMessage>
+    {
+        // Messages from one connection are handled in order on the network thread, so the client copy of the
+        // baseline advances in step with the server's.
+        private static final Baseline baseline = new Baseline();
+
+        @Override
+        public IMessage onMessage (CountBatchMessage message, MessageContext ctx) {
+            if (message.failed || ctx.side != Side.CLIENT)
+                return null;
+
+            if ((message.flags & FLAG_RESET) != 0)
+                baseline.clear();
+
+            for (Entry entry : message.entries) {
+                int count;
+                if ((entry.code & 1) == 0)
+                    count = (int)(entry.code >>> 1);
+                else {
+                    int previous = baseline.get(entry.pos, entry.slot);
+                    if (previous < 0)
+                        continue;
+
+                    count = (int)(previous + unZigZag(entry.code >>> 1));
+                }
+
+                baseline.set(entry.pos, entry.slot, count);
+                ClientCountInbox.post(entry.pos, entry.slot, count);
+            }
+
+            return null;
+        }
+    }
+
+    public static class HandlerStub implements IMessageHandler<CountBatchMessage, IMessage>
+    {
+        @Override
+        public IMessage onMessage (CountBatchMessage message, MessageContext ctx) {
+            FMLLog.log(StorageDrawers.MOD_ID, Level.WARN, "CountBatchMessage stub handler called.");
+            return null;
+        }
+    }
+}
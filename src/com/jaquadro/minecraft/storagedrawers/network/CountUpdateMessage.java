@@ -1,13 +1,9 @@
 package com.jaquadro.minecraft.storagedrawers.network;
 
 import com.jaquadro.minecraft.storagedrawers.StorageDrawers;
-import com.jaquadro.minecraft.storagedrawers.block.tile.TileEntityDrawers;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
-import net.minecraft.client.Minecraft;
-import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.World;
 import net.minecraftforge.fml.common.FMLLog;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
@@ -16,34 +12,48 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import org.apache.logging.log4j.Level;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class CountUpdateMessage implements IMessage
 {
-    private int x;
-    private int y;
-    private int z;
-    private int slot;
-    private int count;
+    private List<Entry> entries = new ArrayList<>();
 
     private boolean failed;
 
     public CountUpdateMessage () { }
 
     public CountUpdateMessage (BlockPos pos, int slot, int count) {
-        this.x = pos.getX();
-        this.y = pos.getY();
-        this.z = pos.getZ();
-        this.slot = slot;
-        this.count = count;
+        addEntry(pos, slot, count);
+    }
+
+    public void addEntry (BlockPos pos, int slot, int count) {
+        entries.add(new Entry(pos.getX(), pos.getY(), pos.getZ(), slot, count));
+    }
+
+    public int getEntryCount () {
+        return entries.size();
+    }
+
+    List<Entry> getEntries () {
+        return entries;
     }
 
     @Override
     public void fromBytes (ByteBuf buf) {
         try {
-            x = buf.readInt();
-            y = buf.readShort();
-            z = buf.readInt();
-            slot = buf.readByte();
-            count = buf.readInt();
+            int entryCount = buf.readUnsignedShort();
+            entries = new ArrayList<>(entryCount);
+
+            for (int i = 0; i < entryCount; i++) {
+                int x = buf.readInt();
+                int y = buf.readShort();
+                int z = buf.readInt();
+                int slot = buf.readByte();
+                int count = buf.readInt();
+
+                entries.add(new Entry(x, y, z, slot, count));
+            }
         }
         catch (IndexOutOfBoundsException e) {
             failed = true;
@@ -53,11 +63,31 @@ public class CountUpdateMessage implements IMessage
 
     @Override
     public void toBytes (ByteBuf buf) {
-        buf.writeInt(x);
-        buf.writeShort(y);
-        buf.writeInt(z);
-        buf.writeByte(slot);
-        buf.writeInt(count);
+        buf.writeShort(entries.size());
+        for (Entry entry : entries) {
+            buf.writeInt(entry.x);
+            buf.writeShort(entry.y);
+            buf.writeInt(entry.z);
+            buf.writeByte(entry.slot);
+            buf.writeInt(entry.count);
+        }
+    }
+
+    static class Entry
+    {
+        final int x;
+        final int y;
+        final int z;
+        final int slot;
+        final int count;
+
+        Entry (int x, int y, int z, int slot, int count) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.slot = slot;
+            this.count = count;
+        }
     }
 
     @SideOnly(Side.CLIENT)
@@ -66,14 +96,8 @@ public class CountUpdateMessage implements IMessage
         @Override
         public IMessage onMessage (CountUpdateMessage message, MessageContext ctx) {
             if (!message.failed && ctx.side == Side.CLIENT) {
-                World world = Minecraft.getMinecraft().world;
-                if (world != null) {
-                    BlockPos pos = new BlockPos(message.x, message.y, message.z);
-                    TileEntity tileEntity = world.getTileEntity(pos);
-                    if (tileEntity instanceof TileEntityDrawers) {
-                        ((TileEntityDrawers) tileEntity).clientUpdateCount(message.slot, message.count);
-                    }
-                }
+                for (Entry entry : message.entries)
+                    ClientCountInbox.post(new BlockPos(entry.x, entry.y, entry.z), entry.slot, entry.count);
             }
 
             return null;
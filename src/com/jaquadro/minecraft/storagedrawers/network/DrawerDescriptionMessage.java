@@ -0,0 +1,100 @@
+package com.jaquadro.minecraft.storagedrawers.network;
+
+import com.jaquadro.minecraft.storagedrawers.StorageDrawers;
+import com.jaquadro.minecraft.storagedrawers.block.tile.TileEntityDrawers;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import net.minecraft.client.Minecraft;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import org.apache.logging.log4j.Level;
+
+/**
+ * Partial description update for a drawer block, carrying only the parts of its state that changed.  Used in place
+ * of a full tile entity update packet; see {@link TileEntityDrawers#takeDescriptionUpdate}.
+ */
+public class DrawerDescriptionMessage implements IMessage
+{
+    private int x;
+    private int y;
+    private int z;
+    private NBTTagCompound data;
+
+    private boolean failed;
+
+    public DrawerDescriptionMessage () { }
+
+    public DrawerDescriptionMessage (BlockPos pos, NBTTagCompound data) {
+        this.x = pos.getX();
+        this.y = pos.getY();
+        this.z = pos.getZ();
+        this.data = data;
+    }
+
+    @Override
+    public void fromBytes (ByteBuf buf) {
+        try {
+            x = buf.readInt();
+            y = buf.readShort();
+            z = buf.readInt();
+            data = ByteBufUtils.readTag(buf);
+        }
+        catch (IndexOutOfBoundsException e) {
+            failed = true;
+            StorageDrawers.log.error("DrawerDescriptionMessage: Unexpected end of packet.\nMessage: " + ByteBufUtil.hexDump(buf, 0, buf.writerIndex()), e);
+        }
+    }
+
+    @Override
+    public void toBytes (ByteBuf buf) {
+        buf.writeInt(x);
+        buf.writeShort(y);
+        buf.writeInt(z);
+        ByteBufUtils.writeTag(buf, data);
+    }
+
+    @SideOnly(Side.CLIENT)
+    public static class Handler implements IMessageHandler<DrawerDescriptionMessage, IMessage>
+    {
+        @Override
+        public IMessage onMessage (DrawerDescriptionMessage message, MessageContext ctx) {
+            if (!message.failed && message.data != null && ctx.side == Side.CLIENT) {
+                // The sequence is taken here so it orders against count updates in arrival order, but the tile is
+                // looked up on the client thread, which owns the world
+                final long seq = ClientCountInbox.nextSequence();
+                final BlockPos pos = new BlockPos(message.x, message.y, message.z);
+                final NBTTagCompound data = message.data;
+
+                Minecraft.getMinecraft().addScheduledTask(() -> {
+                    World world = Minecraft.getMinecraft().world;
+                    if (world == null)
+                        return;
+
+                    TileEntity tileEntity = world.getTileEntity(pos);
+                    if (tileEntity instanceof TileEntityDrawers)
+                        ((TileEntityDrawers) tileEntity).clientUpdateDescription(data, seq);
+                });
+            }
+
+            return null;
+        }
+    }
+
+    public static class HandlerStub implements IMessageHandler<DrawerDescriptionMessage, IMessage>
+    {
+        @Override
+        public IMessage onMessage (DrawerDescriptionMessage message, MessageContext ctx) {
+            FMLLog.log(StorageDrawers.MOD_ID, Level.WARN, "DrawerDescriptionMessage stub handler called.");
+            return null;
+        }
+    }
+}
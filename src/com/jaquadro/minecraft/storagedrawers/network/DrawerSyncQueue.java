@@ -0,0 +1,208 @@
+package com.jaquadro.minecraft.storagedrawers.network;
+
+import com.jaquadro.minecraft.storagedrawers.StorageDrawers;
+import com.jaquadro.minecraft.storagedrawers.block.tile.TileEntityDrawers;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.*;
+
+/**
+ * Collects drawer changes made during a server tick and sends them to clients at the end of the tick.
+ *
+ * Description updates (see {@link TileEntityDrawers#takeDescriptionUpdate}) go to every player tracking the
+ * drawer's chunk, ahead of that tick's count changes.
+ *
+ * For count changes, only the latest count for each drawer slot is kept, and each player receives a single message
+ * holding every change they are interested in: the drawer's chunk must be tracked by the player, and the drawer
+ * must be displaying its counts to them (see {@link TileEntityDrawers#isCountVisibleTo}).
+ *
+ * Players that start watching a drawer's counts through a GUI or a Waila tooltip are sent a snapshot, since
+ * changes made while they were not interested were never sent.  Waila only reports its targets when it is installed
+ * on both sides, so players that have never reported one keep receiving every change to the drawers they track.
+ */
+public class DrawerSyncQueue
+{
+    private static final int MAX_ENTRIES_PER_MESSAGE = 2048;
+    private static final int WAILA_TARGET_TICKS = 40;
+
+    private static final Map<World, Map<BlockPos, Map<Integer, Integer>>> pending = new WeakHashMap<>();
+    private static final Map<World, Set<TileEntityDrawers>> pendingDescriptions = new WeakHashMap<>();
+    private static final Map<EntityPlayerMP, WailaTarget> wailaTargets = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<EntityPlayerMP, CountBatchMessage.Baseline> baselines = new WeakHashMap<>();
+
+    public static void enqueue (World world, BlockPos pos, int slot, int count) {
+        pending.computeIfAbsent(world, k -> new LinkedHashMap<>())
+            .computeIfAbsent(pos.toImmutable(), k -> new LinkedHashMap<>())
+            .put(slot, count);
+    }
+
+    public static void enqueueDescription (World world, TileEntityDrawers tile) {
+        pendingDescriptions.computeIfAbsent(world, k -> new LinkedHashSet<>()).add(tile);
+    }
+
+    public static void flush (World world) {
+        flushDescriptions(world);
+
+        Map<BlockPos, Map<Integer, Integer>> updates = pending.remove(world);
+        if (updates == null || updates.isEmpty() || !(world instanceof WorldServer))
+            return;
+
+        Map<EntityPlayerMP, CountUpdateMessage> messages = new HashMap<>();
+        for (Map.Entry<BlockPos, Map<Integer, Integer>> entry : updates.entrySet()) {
+            BlockPos pos = entry.getKey();
+            PlayerChunkMapEntry chunkEntry = ((WorldServer) world).getPlayerChunkMap().getEntry(pos.getX() >> 4, pos.getZ() >> 4);
+            if (chunkEntry == null)
+                continue;
+
+            TileEntity tile = world.getTileEntity(pos);
+            if (!(tile instanceof TileEntityDrawers))
+                continue;
+
+            for (EntityPlayer player : world.playerEntities) {
+                if (!(player instanceof EntityPlayerMP))
+                    continue;
+
+                EntityPlayerMP playerMP = (EntityPlayerMP) player;
+                if (!chunkEntry.containsPlayer(playerMP) || !((TileEntityDrawers) tile).isCountVisibleTo(playerMP))
+                    continue;
+
+                CountUpdateMessage message = messages.computeIfAbsent(playerMP, k -> new CountUpdateMessage());
+                for (Map.Entry<Integer, Integer> slotEntry : entry.getValue().entrySet()) {
+                    message.addEntry(pos, slotEntry.getKey(), slotEntry.getValue());
+                    if (message.getEntryCount() >= MAX_ENTRIES_PER_MESSAGE) {
+                        send(playerMP, message);
+                        message = new CountUpdateMessage();
+                        messages.put(playerMP, message);
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<EntityPlayerMP, CountUpdateMessage> entry : messages.entrySet()) {
+            if (entry.getValue().getEntryCount() > 0)
+                send(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static void flushDescriptions (World world) {
+        Set<TileEntityDrawers> tiles = pendingDescriptions.remove(world);
+        if (tiles == null || !(world instanceof WorldServer))
+            return;
+
+        for (TileEntityDrawers tile : tiles) {
+            DrawerDescriptionMessage message = new DrawerDescriptionMessage(tile.getPos(), tile.takeDescriptionUpdate());
+            if (tile.isInvalid())
+                continue;
+
+            PlayerChunkMapEntry chunkEntry = ((WorldServer) world).getPlayerChunkMap().getEntry(tile.getPos().getX() >> 4, tile.getPos().getZ() >> 4);
+            if (chunkEntry == null)
+                continue;
+
+            for (EntityPlayer player : world.playerEntities) {
+                if (player instanceof EntityPlayerMP && chunkEntry.containsPlayer((EntityPlayerMP) player))
+                    StorageDrawers.network.sendTo(message, (EntityPlayerMP) player);
+            }
+        }
+    }
+
+    public static void sendSnapshot (EntityPlayerMP player, TileEntityDrawers tile) {
+        CountUpdateMessage message = new CountUpdateMessage();
+        tile.addCountSnapshot(message);
+
+        if (message.getEntryCount() > 0)
+            send(player, message);
+    }
+
+    private static void send (EntityPlayerMP player, CountUpdateMessage message) {
+        if (StorageDrawers.config.cache.compactCountSync) {
+            CountBatchMessage.Baseline baseline = baselines.computeIfAbsent(player, k -> new CountBatchMessage.Baseline());
+            StorageDrawers.network.sendTo(new CountBatchMessage(baseline, message), player);
+        }
+        else
+            StorageDrawers.network.sendTo(message, player);
+    }
+
+    /**
+     * Records that the player's Waila tooltip is showing the given drawer.  Waila refreshes its server data while
+     * the block stays targeted, so the interest lapses shortly after the player looks away.
+     */
+    public static void watchAsWailaTarget (EntityPlayerMP player, TileEntityDrawers tile) {
+        player.getServerWorld().addScheduledTask(() -> {
+            long time = tile.getWorld().getTotalWorldTime();
+            WailaTarget target = wailaTargets.get(player);
+
+            boolean newTarget = target == null || !target.isActive(tile.getWorld(), tile.getPos(), time);
+            wailaTargets.put(player, new WailaTarget(tile.getWorld(), tile.getPos(), time + WAILA_TARGET_TICKS));
+
+            if (newTarget)
+                sendSnapshot(player, tile);
+        });
+    }
+
+    /**
+     * Tests whether the player's Waila tooltips have reported a target to the server this session.
+     */
+    public static boolean isWailaReporting (EntityPlayerMP player) {
+        return wailaTargets.containsKey(player);
+    }
+
+    public static boolean isWailaTarget (EntityPlayerMP player, World world, BlockPos pos) {
+        WailaTarget target = wailaTargets.get(player);
+        return target != null && target.isActive(world, pos, world.getTotalWorldTime());
+    }
+
+    private static class WailaTarget
+    {
+        final World world;
+        final BlockPos pos;
+        final long expireTime;
+
+        WailaTarget (World world, BlockPos pos, long expireTime) {
+            this.world = world;
+            this.pos = pos;
+            this.expireTime = expireTime;
+        }
+
+        boolean isActive (World world, BlockPos pos, long time) {
+            return this.world == world && this.pos.equals(pos) && time <= expireTime;
+        }
+    }
+
+    public static class EventHandler
+    {
+        @SubscribeEvent
+        public void onWorldTick (TickEvent.WorldTickEvent event) {
+            if (event.phase == TickEvent.Phase.END && !event.world.isRemote)
+                flush(event.world);
+        }
+
+        @SubscribeEvent
+        public void onWorldUnload (WorldEvent.Unload event) {
+            pending.remove(event.getWorld());
+            pendingDescriptions.remove(event.getWorld());
+        }
+
+        @SubscribeEvent
+        public void onPlayerChangedDimension (PlayerEvent.PlayerChangedDimensionEvent event) {
+            CountBatchMessage.Baseline baseline = baselines.get(event.player);
+            if (baseline != null)
+                baseline.reset();
+        }
+
+        @SubscribeEvent
+        public void onPlayerLoggedOut (PlayerEvent.PlayerLoggedOutEvent event) {
+            baselines.remove(event.player);
+            wailaTargets.remove(event.player);
+        }
+    }
+}
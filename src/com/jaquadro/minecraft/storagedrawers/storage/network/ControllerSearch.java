@@ -7,62 +7,45 @@ import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Set;
-
 public class ControllerSearch
 {
-    private final Queue<BlockPos> searchQueue = new LinkedList<BlockPos>();
-    private final Set<BlockPos> searchDiscovered = new HashSet<BlockPos>();
+    private final NetworkWalker walker = new NetworkWalker();
+    private final BlockPos.MutableBlockPos searchPos = new BlockPos.MutableBlockPos();
 
     private final int range;
 
+    private BlockPos result;
+
     public ControllerSearch (int range) {
         this.range = range;
     }
 
     public BlockPos search (TileEntity tile) {
         BlockPos root = tile.getPos();
-
-        searchQueue.clear();
-        searchQueue.add(root);
-
-        searchDiscovered.clear();
-        searchDiscovered.add(root);
-
         World world = tile.getWorld();
 
-        while (!searchQueue.isEmpty()) {
-            BlockPos coord = searchQueue.remove();
-            int depth = maxAxisDistance(coord, root);
-            if (depth > range)
-                continue;
+        result = null;
+        walker.walk(root.toLong(), node -> visitNode(world, root, node));
 
-            Block block = world.getBlockState(coord).getBlock();
-            if (!(block instanceof INetworked))
-                continue;
+        return result;
+    }
 
-            if (block instanceof BlockController)
-                return coord;
+    private boolean visitNode (World world, BlockPos root, long node) {
+        if (NetworkWalker.getDistance(node, root) > range)
+            return false;
 
-            BlockPos[] neighbors = new BlockPos[]{
-                coord.west(), coord.east(), coord.south(), coord.north(), coord.up(), coord.down()
-            };
+        NetworkWalker.setPos(searchPos, node);
 
-            for (BlockPos n : neighbors) {
-                if (!searchDiscovered.contains(n)) {
-                    searchQueue.add(n);
-                    searchDiscovered.add(n);
-                }
-            }
-        }
+        Block block = world.getBlockState(searchPos).getBlock();
+        if (!(block instanceof INetworked))
+            return false;
 
-        return null;
-    }
+        if (block instanceof BlockController) {
+            result = searchPos.toImmutable();
+            walker.stop();
+            return false;
+        }
 
-    private int maxAxisDistance (BlockPos coord1, BlockPos coord2) {
-        return Math.max(Math.max(Math.abs(coord1.getX() - coord2.getX()), Math.abs(coord1.getY() - coord2.getY())), Math.abs(coord1.getZ() - coord2.getZ()));
+        return true;
     }
 }
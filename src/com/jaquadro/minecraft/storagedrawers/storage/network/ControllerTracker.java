@@ -0,0 +1,81 @@
+package com.jaquadro.minecraft.storagedrawers.storage.network;
+
+import com.jaquadro.minecraft.storagedrawers.block.tile.TileEntityController;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.*;
+
+public class ControllerTracker
+{
+    private static final Map<World, Set<TileEntityController>> controllers = new WeakHashMap<>();
+
+    public static void register (TileEntityController controller) {
+        World world = controller.getWorld();
+        if (world == null || world.isRemote)
+            return;
+
+        Set<TileEntityController> set = controllers.get(world);
+        if (set == null) {
+            set = Collections.newSetFromMap(new WeakHashMap<>());
+            controllers.put(world, set);
+        }
+
+        set.add(controller);
+    }
+
+    public static void unregister (TileEntityController controller) {
+        World world = controller.getWorld();
+        if (world == null)
+            return;
+
+        Set<TileEntityController> set = controllers.get(world);
+        if (set != null)
+            set.remove(controller);
+    }
+
+    public static void notifyNodeAdded (World world, BlockPos pos) {
+        if (world.isRemote)
+            return;
+
+        for (TileEntityController controller : getControllers(world))
+            controller.onNetworkNodeAdded(pos);
+    }
+
+    public static void notifyNodeRemoved (World world, BlockPos pos) {
+        if (world.isRemote)
+            return;
+
+        for (TileEntityController controller : getControllers(world))
+            controller.onNetworkNodeRemoved(pos);
+    }
+
+    public static void notifyNodeChanged (World world, BlockPos pos) {
+        if (world.isRemote)
+            return;
+
+        for (TileEntityController controller : getControllers(world))
+            controller.onNetworkNodeChanged(pos);
+    }
+
+    public static void notifyNodeAmountChanged (World world, BlockPos pos) {
+        if (world.isRemote)
+            return;
+
+        // Amount changes are frequent and never alter the registered set, so skip the defensive copy.
+        Set<TileEntityController> set = controllers.get(world);
+        if (set == null)
+            return;
+
+        for (TileEntityController controller : set)
+            controller.onNetworkNodeAmountChanged(pos);
+    }
+
+    private static List<TileEntityController> getControllers (World world) {
+        Set<TileEntityController> set = controllers.get(world);
+        if (set == null || set.isEmpty())
+            return Collections.emptyList();
+
+        return new ArrayList<>(set);
+    }
+}
@@ -0,0 +1,129 @@
+package com.jaquadro.minecraft.storagedrawers.storage.network;
+
+import com.jaquadro.minecraft.storagedrawers.block.tile.TileEntityController;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.*;
+
+/**
+ * A connected component of networked blocks whose discovery and indexing is done once, by its owning controller.
+ * Other controllers inside the component follow the network instead of scanning it themselves.  Networks are
+ * registered per world, keyed by the packed position of the component's lowest member.
+ */
+public class DrawerNetwork
+{
+    private static final Map<World, Map<Long, DrawerNetwork>> networks = new WeakHashMap<>();
+
+    private final TileEntityController owner;
+    private final Set<TileEntityController> followers = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private World world;
+    private Long key;
+    private int minX, minY, minZ;
+    private int maxX, maxY, maxZ;
+
+    public DrawerNetwork (TileEntityController owner) {
+        this.owner = owner;
+    }
+
+    public TileEntityController getOwner () {
+        return owner;
+    }
+
+    public boolean isValid () {
+        return key != null && !owner.isInvalid();
+    }
+
+    public boolean hasFollowers () {
+        return !followers.isEmpty();
+    }
+
+    public int getFollowerCount () {
+        return followers.size();
+    }
+
+    public void addFollower (TileEntityController controller) {
+        followers.add(controller);
+    }
+
+    public void removeFollower (TileEntityController controller) {
+        followers.remove(controller);
+    }
+
+    /**
+     * Registers the network under its component key with the given member bounds, replacing any previous
+     * registration of this network.  Followers are asked to re-check whether they are still covered.
+     *
+     * @return false if another network is already registered for the same component.
+     */
+    public boolean publish (World world, long key, BlockPos min, BlockPos max) {
+        Map<Long, DrawerNetwork> worldNetworks = networks.computeIfAbsent(world, k -> new HashMap<>());
+        DrawerNetwork existing = worldNetworks.get(key);
+        if (existing != null && existing != this && existing.isValid()) {
+            dissolve();
+            return false;
+        }
+
+        unregister();
+
+        this.world = world;
+        this.key = key;
+        minX = min.getX();
+        minY = min.getY();
+        minZ = min.getZ();
+        maxX = max.getX();
+        maxY = max.getY();
+        maxZ = max.getZ();
+
+        worldNetworks.put(key, this);
+        notifyFollowers();
+
+        return true;
+    }
+
+    public void dissolve () {
+        unregister();
+        notifyFollowers();
+    }
+
+    /**
+     * Tests whether the controller at pos, with the given range, would discover exactly this network.
+     */
+    public boolean covers (BlockPos pos, int range) {
+        if (!isValid() || !owner.isNetworkMember(pos))
+            return false;
+
+        return minX >= pos.getX() - range && maxX <= pos.getX() + range
+            && minY >= pos.getY() - range && maxY <= pos.getY() + range
+            && minZ >= pos.getZ() - range && maxZ <= pos.getZ() + range;
+    }
+
+    private void unregister () {
+        if (key != null && world != null) {
+            Map<Long, DrawerNetwork> worldNetworks = networks.get(world);
+            if (worldNetworks != null && worldNetworks.get(key) == this)
+                worldNetworks.remove(key);
+        }
+
+        key = null;
+    }
+
+    private void notifyFollowers () {
+        for (TileEntityController follower : new ArrayList<>(followers))
+            follower.onSharedNetworkChanged();
+    }
+
+    public static DrawerNetwork find (World world, BlockPos pos, int range) {
+        Map<Long, DrawerNetwork> worldNetworks = networks.get(world);
+        if (worldNetworks == null)
+            return null;
+
+        for (DrawerNetwork network : worldNetworks.values()) {
+            if (network.covers(pos, range))
+                return network;
+        }
+
+        return null;
+    }
+}
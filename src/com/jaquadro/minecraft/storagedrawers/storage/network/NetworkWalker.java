@@ -0,0 +1,129 @@
+package com.jaquadro.minecraft.storagedrawers.storage.network;
+
+import com.jaquadro.minecraft.storagedrawers.util.LongOpenHashSet;
+import com.jaquadro.minecraft.storagedrawers.util.LongRingQueue;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+
+/**
+ * Breadth-first walk over block positions packed with BlockPos.toLong().  Queue and visited set are primitive and
+ * reused across walks, so a walk allocates nothing once the buffers have grown to the network's size.
+ */
+public class NetworkWalker
+{
+    private static final int NUM_X_BITS = 1 + MathHelper.log2(MathHelper.smallestEncompassingPowerOfTwo(30000000));
+    private static final int NUM_Z_BITS = NUM_X_BITS;
+    private static final int NUM_Y_BITS = 64 - NUM_X_BITS - NUM_Z_BITS;
+    private static final int Y_SHIFT = NUM_Z_BITS;
+    private static final int X_SHIFT = Y_SHIFT + NUM_Y_BITS;
+    private static final long X_MASK = (1L << NUM_X_BITS) - 1L;
+    private static final long Y_MASK = (1L << NUM_Y_BITS) - 1L;
+    private static final long Z_MASK = (1L << NUM_Z_BITS) - 1L;
+
+    public interface INodeVisitor
+    {
+        /**
+         * Called once for each discovered node.
+         *
+         * @return true if the walk should continue into the node's neighbors.
+         */
+        boolean visit (long node);
+    }
+
+    private final LongRingQueue queue;
+    private final LongOpenHashSet discovered;
+    private boolean stopped;
+
+    public NetworkWalker () {
+        queue = new LongRingQueue();
+        discovered = new LongOpenHashSet();
+    }
+
+    public void walk (long start, INodeVisitor visitor) {
+        begin(start);
+        step(visitor, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Resets the walker to a new walk starting at the given node, without visiting anything yet.
+     */
+    public void begin (long start) {
+        queue.clear();
+        discovered.clear();
+        stopped = false;
+
+        queue.add(start);
+        discovered.add(start);
+    }
+
+    /**
+     * Continues the current walk, visiting at most budget nodes.
+     *
+     * @return true if the walk has finished.
+     */
+    public boolean step (INodeVisitor visitor, int budget) {
+        for (int visited = 0; visited < budget && !isFinished(); visited++) {
+            long node = queue.remove();
+            if (!visitor.visit(node))
+                continue;
+
+            int x = getX(node);
+            int y = getY(node);
+            int z = getZ(node);
+
+            enqueue(pack(x - 1, y, z));
+            enqueue(pack(x + 1, y, z));
+            enqueue(pack(x, y, z + 1));
+            enqueue(pack(x, y, z - 1));
+            enqueue(pack(x, y + 1, z));
+            enqueue(pack(x, y - 1, z));
+        }
+
+        return isFinished();
+    }
+
+    public boolean isFinished () {
+        return stopped || queue.isEmpty();
+    }
+
+    public boolean isDiscovered (long node) {
+        return discovered.contains(node);
+    }
+
+    public void stop () {
+        stopped = true;
+    }
+
+    public int getDiscoveredCount () {
+        return discovered.size();
+    }
+
+    private void enqueue (long node) {
+        if (discovered.add(node))
+            queue.add(node);
+    }
+
+    public static long pack (int x, int y, int z) {
+        return ((long)x & X_MASK) << X_SHIFT | ((long)y & Y_MASK) << Y_SHIFT | ((long)z & Z_MASK);
+    }
+
+    public static int getX (long node) {
+        return (int)(node << (64 - X_SHIFT - NUM_X_BITS) >> (64 - NUM_X_BITS));
+    }
+
+    public static int getY (long node) {
+        return (int)(node << (64 - Y_SHIFT - NUM_Y_BITS) >> (64 - NUM_Y_BITS));
+    }
+
+    public static int getZ (long node) {
+        return (int)(node << (64 - NUM_Z_BITS) >> (64 - NUM_Z_BITS));
+    }
+
+    public static int getDistance (long node, BlockPos root) {
+        return Math.max(Math.max(Math.abs(getX(node) - root.getX()), Math.abs(getY(node) - root.getY())), Math.abs(getZ(node) - root.getZ()));
+    }
+
+    public static BlockPos.MutableBlockPos setPos (BlockPos.MutableBlockPos pos, long node) {
+        return pos.setPos(getX(node), getY(node), getZ(node));
+    }
+}
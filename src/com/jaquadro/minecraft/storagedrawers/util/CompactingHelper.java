@@ -60,6 +60,18 @@ public class CompactingHelper
             return new Result(record.upper, record.convRate);
         }
 
+        if (StorageDrawers.compTierGraph.isBuilt()) {
+            CompactingTierGraph.Tier tier = StorageDrawers.compTierGraph.findHigherTier(stack);
+            if (!world.isRemote && StorageDrawers.config.cache.debugTrace) {
+                if (tier.stack.isEmpty())
+                    StorageDrawers.log.info("No candidates found in tier graph");
+                else
+                    StorageDrawers.log.info("Found " + tier.stack.toString() + " in tier graph with conv=" + tier.convRate);
+            }
+
+            return new Result(tier.stack, tier.convRate);
+        }
+
         List<ItemStack> candidates = new ArrayList<>();
 
         int lookupSize = setupLookup(lookup3, stack);
@@ -117,6 +129,18 @@ public class CompactingHelper
             return new Result(record.lower, record.convRate);
         }
 
+        if (StorageDrawers.compTierGraph.isBuilt()) {
+            CompactingTierGraph.Tier tier = StorageDrawers.compTierGraph.findLowerTier(stack);
+            if (!world.isRemote && StorageDrawers.config.cache.debugTrace) {
+                if (tier.stack.isEmpty())
+                    StorageDrawers.log.info("No candidates found in tier graph");
+                else
+                    StorageDrawers.log.info("Found " + tier.stack.toString() + " in tier graph with conv=" + tier.convRate);
+            }
+
+            return new Result(tier.stack, tier.convRate);
+        }
+
         List<ItemStack> candidates = new ArrayList<>();
         Map<ItemStack, Integer> candidatesRate = new HashMap<>();
 
@@ -174,7 +198,7 @@ public class CompactingHelper
     }
 
     @Nonnull
-    private ItemStack findMatchingModCandidate (@Nonnull ItemStack reference, List<ItemStack> candidates) {
+    static ItemStack findMatchingModCandidate (@Nonnull ItemStack reference, List<ItemStack> candidates) {
         ResourceLocation referenceName = reference.getItem().getRegistryName();
         if (referenceName != null) {
             for (ItemStack candidate : candidates) {
@@ -190,7 +214,7 @@ public class CompactingHelper
     }
 
     @Nonnull
-    private ItemStack tryMatch (@Nonnull ItemStack stack, NonNullList<Ingredient> ingredients) {
+    static ItemStack tryMatch (@Nonnull ItemStack stack, NonNullList<Ingredient> ingredients) {
         if (ingredients.size() != 9 && ingredients.size() != 4)
             return ItemStack.EMPTY;
 
@@ -221,14 +245,14 @@ public class CompactingHelper
         return match;
     }
 
-    private int setupLookup (InventoryLookup inv, @Nonnull ItemStack stack) {
+    static int setupLookup (InventoryLookup inv, @Nonnull ItemStack stack) {
         for (int i = 0, n = inv.getSizeInventory(); i < n; i++)
             inv.setInventorySlotContents(i, stack);
 
         return inv.getSizeInventory();
     }
 
-    private static class InventoryLookup extends InventoryCrafting
+    static class InventoryLookup extends InventoryCrafting
     {
         private ItemStack[] stackList;
 
@@ -0,0 +1,773 @@
+package com.jaquadro.minecraft.storagedrawers.util;
+
+import com.jaquadro.minecraft.storagedrawers.StorageDrawers;
+import com.jaquadro.minecraft.storagedrawers.config.OreDictRegistry;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.CraftingManager;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.item.crafting.Ingredient;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTTagString;
+import net.minecraft.util.NonNullList;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.fml.common.ModContainer;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
+import net.minecraftforge.oredict.OreDictionary;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Precomputed compaction tiers for every item taking part in a 2x2 or 3x3 compacting recipe.  The recipe registry
+ * is classified in parallel on the common fork-join pool, producing an index of compacting recipes by input item,
+ * a reverse index by output item and ore id, and an index of single-ingredient recipes by input item.  The tiers
+ * are then resolved against those indexes with the same rules {@link CompactingHelper} applies to the full
+ * registry, and memoized.
+ *
+ * Recipes that don't expose their ingredients or a fixed output, such as custom IRecipe implementations and recipes
+ * whose result depends on the input stacks, can't be indexed.  Each is probed once, on the common pool, with grids
+ * filled by the default stack of every registered item.  Those that craft something from a uniform grid are kept
+ * in registry order and checked the way {@link CompactingHelper} checks every recipe, by matching a filled crafting
+ * grid, whenever a tier is resolved; the items they compacted in the probe count as inputs.  The rest, such as dye,
+ * repair and firework recipes, are dropped.  Probes and checks run without a world, and a recipe that only accepts
+ * tagged stacks is not found by the probe.
+ *
+ * The resolved tiers are saved to a cache file, keyed by a fingerprint of the mod list, the recipe registry down to
+ * the stacks each ingredient matches, the members of every ore name, and which ore names {@link OreDictRegistry}
+ * accepts after the config and any scripts have edited its lists.  While the fingerprint matches, later starts load
+ * the cache and skip tier resolution.  The indexes are still built at load, so a stack the cache doesn't cover is
+ * resolved against them without classifying the registry in the middle of play.  Tiers resolved that way are
+ * written back to the cache when the server stops.
+ */
+public class CompactingTierGraph
+{
+    public static class Tier
+    {
+        @Nonnull
+        public final ItemStack stack;
+        public final int convRate;
+
+        Tier (@Nonnull ItemStack stack, int convRate) {
+            this.stack = stack;
+            this.convRate = convRate;
+        }
+    }
+
+    private static final Tier NONE = new Tier(ItemStack.EMPTY, 0);
+
+    private static final int CACHE_VERSION = 3;
+
+    // What a grid filled with an item's default stack can craft through an unindexed recipe
+    private static final int PROBE_NONE = 0;
+    private static final int PROBE_SINGLE = 1;
+    private static final int PROBE_COMPACTING = 2;
+
+    private final File cacheFile;
+
+    private volatile boolean built;
+    private volatile Index index;
+    private String fingerprint;
+    private boolean loadedFromCache;
+
+    // Set when a tier is resolved that the cache file does not hold yet
+    private volatile boolean unsaved;
+
+    private final Map<ItemIdentity, Tier> higherTiers = new ConcurrentHashMap<>();
+    private final Map<ItemIdentity, Tier> lowerTiers = new ConcurrentHashMap<>();
+
+    // Items and ore names taking part in a compacting recipe.  A stack outside of them has no tiers.
+    private final Set<Item> inputItems = ConcurrentHashMap.newKeySet();
+    private final Set<Item> outputItems = ConcurrentHashMap.newKeySet();
+    private final Set<String> outputOres = ConcurrentHashMap.newKeySet();
+
+    public CompactingTierGraph (File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    public boolean isBuilt () {
+        return built;
+    }
+
+    public boolean isLoadedFromCache () {
+        return loadedFromCache;
+    }
+
+    public String getFingerprint () {
+        return fingerprint;
+    }
+
+    public File getCacheFile () {
+        return cacheFile;
+    }
+
+    public int getTierCount () {
+        return higherTiers.size() + lowerTiers.size();
+    }
+
+    /**
+     * Drops the graph, such as after the recipe or item registries have been remapped.  It is rebuilt on the
+     * next lookup.
+     */
+    public synchronized void invalidate () {
+        built = false;
+        index = null;
+        loadedFromCache = false;
+        higherTiers.clear();
+        lowerTiers.clear();
+        inputItems.clear();
+        outputItems.clear();
+        outputOres.clear();
+    }
+
+    /**
+     * Builds the graph, from the cache file if its fingerprint still matches.
+     */
+    public synchronized void build () {
+        if (built)
+            return;
+
+        long startTime = System.nanoTime();
+        fingerprint = computeFingerprint();
+
+        if (readCache()) {
+            loadedFromCache = true;
+            index = buildIndex();
+            built = true;
+
+            StorageDrawers.log.info("Loaded " + getTierCount() + " compacting tiers from cache in "
+                + ((System.nanoTime() - startTime) / 1000000) + "ms");
+            return;
+        }
+
+        discover();
+        built = true;
+        writeCache();
+
+        StorageDrawers.log.info("Built compacting tier graph with " + getTierCount() + " tiers in "
+            + ((System.nanoTime() - startTime) / 1000000) + "ms");
+    }
+
+    /**
+     * Writes the cache file again if tiers have been resolved since it was last written, such as for stacks first
+     * looked up during play, so the next start loads them as well.
+     */
+    public synchronized void flush () {
+        if (built && unsaved)
+            writeCache();
+    }
+
+    /**
+     * Discards the graph and cache file contents and rediscovers every tier from the recipe registry.
+     */
+    public synchronized void rebuild () {
+        invalidate();
+
+        long startTime = System.nanoTime();
+        fingerprint = computeFingerprint();
+
+        discover();
+        built = true;
+        writeCache();
+
+        StorageDrawers.log.info("Rebuilt compacting tier graph with " + getTierCount() + " tiers in "
+            + ((System.nanoTime() - startTime) / 1000000) + "ms");
+    }
+
+    @Nonnull
+    public Tier findHigherTier (@Nonnull ItemStack stack) {
+        if (stack.isEmpty())
+            return NONE;
+
+        ItemIdentity key = identityOf(stack);
+        Tier tier = higherTiers.get(key);
+        if (tier != null)
+            return tier;
+
+        if (built && !inputItems.contains(stack.getItem()))
+            return NONE;
+
+        Index index = getIndex();
+        return higherTiers.computeIfAbsent(key, k -> {
+            unsaved = true;
+            return resolveHigherTier(index, k.getStack());
+        });
+    }
+
+    @Nonnull
+    public Tier findLowerTier (@Nonnull ItemStack stack) {
+        if (stack.isEmpty())
+            return NONE;
+
+        ItemIdentity key = identityOf(stack);
+        Tier tier = lowerTiers.get(key);
+        if (tier != null)
+            return tier;
+
+        if (built && !outputItems.contains(stack.getItem()) && !hasOutputOre(stack))
+            return NONE;
+
+        Index index = getIndex();
+        return lowerTiers.computeIfAbsent(key, k -> {
+            unsaved = true;
+            return resolveLowerTier(index, k.getStack());
+        });
+    }
+
+    private boolean hasOutputOre (@Nonnull ItemStack stack) {
+        for (int oreId : OreDictionary.getOreIDs(stack)) {
+            if (outputOres.contains(OreDictionary.getOreName(oreId)))
+                return true;
+        }
+
+        return false;
+    }
+
+    private synchronized Index getIndex () {
+        if (index == null)
+            index = buildIndex();
+
+        return index;
+    }
+
+    private void discover () {
+        Index discovered = buildIndex();
+        index = discovered;
+        inputItems.addAll(discovered.fallbackInputs);
+
+        for (RecipeInfo info : discovered.compacting) {
+            for (ItemStack input : info.inputs) {
+                if (!input.isEmpty())
+                    inputItems.add(input.getItem());
+            }
+
+            outputItems.add(info.output.getItem());
+            for (int oreId : OreDictionary.getOreIDs(info.output))
+                outputOres.add(OreDictionary.getOreName(oreId));
+        }
+
+        for (RecipeInfo info : discovered.compacting) {
+            for (ItemStack input : info.inputs) {
+                if (input.getItemDamage() != OreDictionary.WILDCARD_VALUE)
+                    findHigherTier(input);
+            }
+
+            findLowerTier(info.output);
+        }
+
+        for (Item item : discovered.fallbackInputs)
+            findHigherTier(new ItemStack(item));
+    }
+
+    private static Index buildIndex () {
+        List<IRecipe> recipes = new ArrayList<>();
+        for (IRecipe recipe : CraftingManager.REGISTRY)
+            recipes.add(recipe);
+
+        List<RecipeInfo> infos = IntStream.range(0, recipes.size()).parallel()
+            .mapToObj(i -> classify(i, recipes.get(i)))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+
+        Index index = new Index();
+        for (RecipeInfo info : infos)
+            index.add(info);
+
+        index.probeFallback();
+        return index;
+    }
+
+    private static String computeFingerprint () {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        }
+        catch (NoSuchAlgorithmException e) {
+            return "";
+        }
+
+        // Each line is fed to the digest as soon as it is complete, since ingredient lists can be large
+        StringBuilder builder = new StringBuilder();
+        builder.append(CACHE_VERSION).append('\n');
+
+        for (ModContainer mod : Loader.instance().getActiveModList())
+            builder.append(mod.getModId()).append('@').append(mod.getVersion()).append('\n');
+        updateDigest(digest, builder);
+
+        for (IRecipe recipe : CraftingManager.REGISTRY) {
+            builder.append(recipe.getRegistryName());
+            try {
+                ItemStack output = recipe.getRecipeOutput();
+                if (!output.isEmpty())
+                    appendStack(builder.append('>'), output).append(output.getCount());
+
+                for (Ingredient ingredient : recipe.getIngredients()) {
+                    builder.append('[');
+                    for (ItemStack stack : ingredient.getMatchingStacks())
+                        appendStack(builder, stack);
+                    builder.append(']');
+                }
+            }
+            catch (RuntimeException e) {
+                builder.append('!');
+            }
+
+            updateDigest(digest, builder.append('\n'));
+        }
+
+        OreDictRegistry oreDictRegistry = StorageDrawers.oreDictRegistry;
+        for (String oreName : OreDictionary.getOreNames()) {
+            int oreId = OreDictionary.getOreID(oreName);
+            builder.append(oreName).append(oreDictRegistry.isEntryValid(oreId) ? '+' : '-');
+            for (ItemStack stack : OreDictionary.getOres(oreName, false))
+                appendStack(builder, stack);
+
+            updateDigest(digest, builder.append('\n'));
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest())
+            hex.append(String.format("%02x", b));
+
+        return hex.toString();
+    }
+
+    private static void updateDigest (MessageDigest digest, StringBuilder builder) {
+        digest.update(builder.toString().getBytes(StandardCharsets.UTF_8));
+        builder.setLength(0);
+    }
+
+    private static StringBuilder appendStack (StringBuilder builder, @Nonnull ItemStack stack) {
+        builder.append(stack.getItem().getRegistryName()).append('@').append(stack.getItemDamage());
+        if (stack.hasTagCompound())
+            builder.append(stack.getTagCompound());
+
+        return builder.append(';');
+    }
+
+    private boolean readCache () {
+        if (cacheFile == null || !cacheFile.isFile())
+            return false;
+
+        NBTTagCompound tag;
+        try (InputStream stream = new FileInputStream(cacheFile)) {
+            tag = CompressedStreamTools.readCompressed(stream);
+        }
+        catch (IOException e) {
+            StorageDrawers.log.warn("Could not read compacting tier cache " + cacheFile + ": " + e.toString());
+            return false;
+        }
+
+        if (tag.getInteger("Version") != CACHE_VERSION || !tag.getString("Fingerprint").equals(fingerprint))
+            return false;
+
+        if (!readItems(tag.getTagList("Inputs", Constants.NBT.TAG_STRING), inputItems)
+            || !readItems(tag.getTagList("Outputs", Constants.NBT.TAG_STRING), outputItems)
+            || !readTiers(tag.getTagList("Higher", Constants.NBT.TAG_COMPOUND), higherTiers)
+            || !readTiers(tag.getTagList("Lower", Constants.NBT.TAG_COMPOUND), lowerTiers)) {
+            invalidate();
+            return false;
+        }
+
+        NBTTagList oreList = tag.getTagList("OutputOres", Constants.NBT.TAG_STRING);
+        for (int i = 0; i < oreList.tagCount(); i++)
+            outputOres.add(oreList.getStringTagAt(i));
+
+        return true;
+    }
+
+    private void writeCache () {
+        if (cacheFile == null)
+            return;
+
+        unsaved = false;
+
+        NBTTagCompound tag = new NBTTagCompound();
+        tag.setInteger("Version", CACHE_VERSION);
+        tag.setString("Fingerprint", fingerprint);
+        tag.setTag("Inputs", writeItems(inputItems));
+        tag.setTag("Outputs", writeItems(outputItems));
+        tag.setTag("Higher", writeTiers(higherTiers));
+        tag.setTag("Lower", writeTiers(lowerTiers));
+
+        NBTTagList oreList = new NBTTagList();
+        for (String oreName : outputOres)
+            oreList.appendTag(new NBTTagString(oreName));
+        tag.setTag("OutputOres", oreList);
+
+        try (OutputStream stream = new FileOutputStream(cacheFile)) {
+            CompressedStreamTools.writeCompressed(tag, stream);
+        }
+        catch (IOException e) {
+            StorageDrawers.log.warn("Could not write compacting tier cache " + cacheFile + ": " + e.toString());
+        }
+    }
+
+    private static boolean readItems (NBTTagList list, Set<Item> items) {
+        for (int i = 0; i < list.tagCount(); i++) {
+            Item item = ForgeRegistries.ITEMS.getValue(new ResourceLocation(list.getStringTagAt(i)));
+            if (item == null)
+                return false;
+
+            items.add(item);
+        }
+
+        return true;
+    }
+
+    private static NBTTagList writeItems (Set<Item> items) {
+        NBTTagList list = new NBTTagList();
+        for (Item item : items) {
+            ResourceLocation name = item.getRegistryName();
+            if (name != null)
+                list.appendTag(new NBTTagString(name.toString()));
+        }
+
+        return list;
+    }
+
+    private static boolean readTiers (NBTTagList list, Map<ItemIdentity, Tier> tiers) {
+        for (int i = 0; i < list.tagCount(); i++) {
+            NBTTagCompound entry = list.getCompoundTagAt(i);
+            ItemStack key = new ItemStack(entry.getCompoundTag("Key"));
+            if (key.isEmpty())
+                return false;
+
+            Tier tier = NONE;
+            if (entry.hasKey("Stack")) {
+                ItemStack stack = new ItemStack(entry.getCompoundTag("Stack"));
+                if (stack.isEmpty())
+                    return false;
+
+                tier = new Tier(stack, entry.getInteger("Conv"));
+            }
+
+            tiers.put(new ItemIdentity(key), tier);
+        }
+
+        return true;
+    }
+
+    private static NBTTagList writeTiers (Map<ItemIdentity, Tier> tiers) {
+        NBTTagList list = new NBTTagList();
+        for (Map.Entry<ItemIdentity, Tier> entry : tiers.entrySet()) {
+            NBTTagCompound entryTag = new NBTTagCompound();
+            entryTag.setTag("Key", entry.getKey().getStack().writeToNBT(new NBTTagCompound()));
+
+            Tier tier = entry.getValue();
+            if (!tier.stack.isEmpty()) {
+                entryTag.setTag("Stack", tier.stack.writeToNBT(new NBTTagCompound()));
+                entryTag.setInteger("Conv", tier.convRate);
+            }
+
+            list.appendTag(entryTag);
+        }
+
+        return list;
+    }
+
+    private static ItemIdentity identityOf (@Nonnull ItemStack stack) {
+        ItemStack key = stack.copy();
+        key.setCount(1);
+        return new ItemIdentity(key);
+    }
+
+    private static RecipeInfo classify (int order, IRecipe recipe) {
+        try {
+            ItemStack output = recipe.getRecipeOutput();
+            NonNullList<Ingredient> ingredients = recipe.getIngredients();
+            if (output.isEmpty() || ingredients.isEmpty())
+                return recipe.canFit(3, 3) ? new RecipeInfo(order, recipe) : null;
+
+            int size = ingredients.size();
+            if (size != 1 && size != 4 && size != 9)
+                return null;
+
+            ItemStack[] inputs = ingredients.get(0).getMatchingStacks();
+            if (inputs.length == 0)
+                return new RecipeInfo(order, recipe);
+
+            return new RecipeInfo(order, recipe, output, ingredients, inputs);
+        }
+        catch (RuntimeException e) {
+            if (StorageDrawers.config.cache.debugTrace)
+                StorageDrawers.log.info("Skipped recipe " + recipe.getRegistryName() + " while building compacting tier graph: " + e.toString());
+
+            return null;
+        }
+    }
+
+    // Mirrors CompactingHelper.findHigherTier: 3x3 recipes take priority over 2x2 ones, and each candidate must
+    // craft back into the same number of the original item.
+    @Nonnull
+    private static Tier resolveHigherTier (Index index, @Nonnull ItemStack stack) {
+        List<ItemStack> fwdCandidates = new ArrayList<>();
+        int lookupSize = 9;
+
+        for (RecipeInfo info : index.getCompactingByInput(stack.getItem())) {
+            if (info.ingredients.size() == 9 && info.acceptsAll(stack))
+                fwdCandidates.add(info.output);
+        }
+
+        fwdCandidates.addAll(findFallbackResults(index, new CompactingHelper.InventoryLookup(3, 3), stack));
+
+        if (fwdCandidates.isEmpty()) {
+            lookupSize = 4;
+            for (RecipeInfo info : index.getCompactingByInput(stack.getItem())) {
+                if (info.ingredients.size() == 4 && info.acceptsAll(stack))
+                    fwdCandidates.add(info.output);
+            }
+
+            fwdCandidates.addAll(findFallbackResults(index, new CompactingHelper.InventoryLookup(2, 2), stack));
+        }
+
+        List<ItemStack> candidates = new ArrayList<>();
+        for (ItemStack match : fwdCandidates) {
+            for (ItemStack comp : findSingleResults(index, match)) {
+                if (comp.getCount() != lookupSize)
+                    continue;
+
+                if (!ItemStackOreMatcher.areItemsEqual(comp, stack, false))
+                    continue;
+
+                candidates.add(match);
+                break;
+            }
+        }
+
+        ItemStack modMatch = CompactingHelper.findMatchingModCandidate(stack, candidates);
+        if (!modMatch.isEmpty())
+            return new Tier(modMatch, lookupSize);
+
+        if (candidates.size() > 0)
+            return new Tier(candidates.get(0), lookupSize);
+
+        return NONE;
+    }
+
+    // Mirrors CompactingHelper.findLowerTier
+    @Nonnull
+    private static Tier resolveLowerTier (Index index, @Nonnull ItemStack stack) {
+        List<Tier> candidates = new ArrayList<>();
+        List<ItemStack> candidateStacks = new ArrayList<>();
+
+        for (RecipeInfo info : index.getCompactingByOutput(stack)) {
+            if (!ItemStackOreMatcher.areItemsEqual(stack, info.output, true))
+                continue;
+
+            ItemStack match = CompactingHelper.tryMatch(stack, info.ingredients);
+            if (match.isEmpty())
+                continue;
+
+            int recipeSize = info.ingredients.size();
+            for (ItemStack comp : findSingleResults(index, info.output)) {
+                if (ItemStackOreMatcher.areItemsEqual(match, comp, true) && comp.getCount() == recipeSize) {
+                    candidates.add(new Tier(match, recipeSize));
+                    candidateStacks.add(match);
+                }
+            }
+        }
+
+        ItemStack modMatch = CompactingHelper.findMatchingModCandidate(stack, candidateStacks);
+        if (!modMatch.isEmpty())
+            return candidates.get(candidateStacks.indexOf(modMatch));
+
+        if (candidates.size() > 0)
+            return candidates.get(0);
+
+        return NONE;
+    }
+
+    // Outputs of the single-ingredient recipes that accept the stack, indexed or not, as the 1x1 grid lookup in
+    // CompactingHelper would find them.
+    private static List<ItemStack> findSingleResults (Index index, @Nonnull ItemStack stack) {
+        List<ItemStack> results = new ArrayList<>();
+        for (RecipeInfo back : index.getSingleByInput(stack.getItem())) {
+            if (back.acceptsAll(stack))
+                results.add(back.output);
+        }
+
+        results.addAll(findFallbackResults(index, new CompactingHelper.InventoryLookup(1, 1), stack));
+        return results;
+    }
+
+    // Crafting results of the recipes that couldn't be indexed, for a grid filled with the stack
+    private static List<ItemStack> findFallbackResults (Index index, CompactingHelper.InventoryLookup grid, @Nonnull ItemStack stack) {
+        if (index.fallback.isEmpty())
+            return Collections.emptyList();
+
+        List<ItemStack> results = new ArrayList<>();
+        for (RecipeInfo info : index.fallback) {
+            ItemStack result = findFallbackResult(info.recipe, grid, stack);
+            if (!result.isEmpty())
+                results.add(result);
+        }
+
+        return results;
+    }
+
+    @Nonnull
+    private static ItemStack findFallbackResult (IRecipe recipe, CompactingHelper.InventoryLookup grid, @Nonnull ItemStack stack) {
+        CompactingHelper.setupLookup(grid, stack);
+
+        try {
+            if (recipe.matches(grid, null))
+                return recipe.getCraftingResult(grid);
+        }
+        catch (RuntimeException e) {
+            if (StorageDrawers.config.cache.debugTrace)
+                StorageDrawers.log.info("Skipped recipe " + recipe.getRegistryName() + " while resolving compacting tier: " + e.toString());
+        }
+
+        return ItemStack.EMPTY;
+    }
+
+    private static int probe (IRecipe recipe, Item item) {
+        ItemStack stack = new ItemStack(item);
+        if (stack.isEmpty())
+            return PROBE_NONE;
+
+        if (!findFallbackResult(recipe, new CompactingHelper.InventoryLookup(3, 3), stack).isEmpty()
+            || !findFallbackResult(recipe, new CompactingHelper.InventoryLookup(2, 2), stack).isEmpty())
+            return PROBE_COMPACTING;
+
+        if (!findFallbackResult(recipe, new CompactingHelper.InventoryLookup(1, 1), stack).isEmpty())
+            return PROBE_SINGLE;
+
+        return PROBE_NONE;
+    }
+
+    private static class RecipeInfo
+    {
+        final int order;
+        final IRecipe recipe;
+        final ItemStack output;
+        final NonNullList<Ingredient> ingredients;
+        final ItemStack[] inputs;
+
+        RecipeInfo (int order, IRecipe recipe, ItemStack output, NonNullList<Ingredient> ingredients, ItemStack[] inputs) {
+            this.order = order;
+            this.recipe = recipe;
+            this.output = output;
+            this.ingredients = ingredients;
+            this.inputs = inputs;
+        }
+
+        // A recipe that can only be checked against a crafting grid
+        RecipeInfo (int order, IRecipe recipe) {
+            this(order, recipe, ItemStack.EMPTY, null, null);
+        }
+
+        boolean isIndexed () {
+            return ingredients != null;
+        }
+
+        boolean acceptsAll (@Nonnull ItemStack stack) {
+            for (Ingredient ingredient : ingredients) {
+                if (!ingredient.apply(stack))
+                    return false;
+            }
+
+            return true;
+        }
+    }
+
+    private static class Index
+    {
+        private final List<RecipeInfo> compacting = new ArrayList<>();
+        private final List<RecipeInfo> fallback = new ArrayList<>();
+        private final Set<Item> fallbackInputs = new HashSet<>();
+        private final Map<Item, List<RecipeInfo>> compactingByInput = new HashMap<>();
+        private final Map<Item, List<RecipeInfo>> compactingByOutput = new HashMap<>();
+        private final Map<Integer, List<RecipeInfo>> compactingByOutputOre = new HashMap<>();
+        private final Map<Item, List<RecipeInfo>> singleByInput = new HashMap<>();
+
+        void add (RecipeInfo info) {
+            if (!info.isIndexed()) {
+                fallback.add(info);
+                return;
+            }
+
+            if (info.ingredients.size() == 1) {
+                for (Item item : inputItems(info))
+                    singleByInput.computeIfAbsent(item, k -> new ArrayList<>()).add(info);
+                return;
+            }
+
+            compacting.add(info);
+            for (Item item : inputItems(info))
+                compactingByInput.computeIfAbsent(item, k -> new ArrayList<>()).add(info);
+
+            compactingByOutput.computeIfAbsent(info.output.getItem(), k -> new ArrayList<>()).add(info);
+            for (int oreId : OreDictionary.getOreIDs(info.output))
+                compactingByOutputOre.computeIfAbsent(oreId, k -> new ArrayList<>()).add(info);
+        }
+
+        // Keeps only the unindexed recipes that craft something from a uniform grid of some item's default stack
+        void probeFallback () {
+            if (fallback.isEmpty())
+                return;
+
+            List<Item> items = new ArrayList<>(ForgeRegistries.ITEMS.getValuesCollection());
+            List<RecipeInfo> candidates = new ArrayList<>(fallback);
+            fallback.clear();
+
+            for (RecipeInfo info : candidates) {
+                int[] results = items.parallelStream().mapToInt(item -> probe(info.recipe, item)).toArray();
+
+                boolean crafts = false;
+                for (int i = 0; i < results.length; i++) {
+                    crafts |= results[i] != PROBE_NONE;
+                    if (results[i] == PROBE_COMPACTING)
+                        fallbackInputs.add(items.get(i));
+                }
+
+                if (crafts)
+                    fallback.add(info);
+            }
+        }
+
+        List<RecipeInfo> getCompactingByInput (Item item) {
+            return compactingByInput.getOrDefault(item, Collections.emptyList());
+        }
+
+        List<RecipeInfo> getSingleByInput (Item item) {
+            return singleByInput.getOrDefault(item, Collections.emptyList());
+        }
+
+        // Recipes whose output may match the stack, directly or through a shared ore id, in registry order
+        List<RecipeInfo> getCompactingByOutput (@Nonnull ItemStack stack) {
+            int[] oreIds = OreDictionary.getOreIDs(stack);
+            if (oreIds.length == 0)
+                return compactingByOutput.getOrDefault(stack.getItem(), Collections.emptyList());
+
+            Set<RecipeInfo> merged = new TreeSet<>(Comparator.comparingInt(info -> info.order));
+            merged.addAll(compactingByOutput.getOrDefault(stack.getItem(), Collections.emptyList()));
+            for (int oreId : oreIds)
+                merged.addAll(compactingByOutputOre.getOrDefault(oreId, Collections.emptyList()));
+
+            return new ArrayList<>(merged);
+        }
+
+        private static Set<Item> inputItems (RecipeInfo info) {
+            Set<Item> items = new LinkedHashSet<>();
+            for (ItemStack input : info.inputs) {
+                if (!input.isEmpty())
+                    items.add(input.getItem());
+            }
+
+            return items;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.jaquadro.minecraft.storagedrawers.util;
+
+import com.jaquadro.minecraft.storagedrawers.inventory.ItemStackHelper;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Hash key for an item stack's full identity: item, metadata, tag compound and capability data.
+ * Two identities are equal exactly when {@link ItemStackMatcher#areItemsEqual} holds for their stacks.
+ * The wrapped stack must not be modified while the identity is in use as a key.
+ */
+public final class ItemIdentity
+{
+    @Nonnull
+    private final ItemStack stack;
+    private final int hash;
+
+    public ItemIdentity (@Nonnull ItemStack stack) {
+        this.stack = stack;
+        this.hash = computeHash(stack);
+    }
+
+    @Nonnull
+    public ItemStack getStack () {
+        return stack;
+    }
+
+    @Override
+    public int hashCode () {
+        return hash;
+    }
+
+    @Override
+    public boolean equals (Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof ItemIdentity))
+            return false;
+
+        ItemIdentity other = (ItemIdentity)obj;
+        return hash == other.hash && ItemStackMatcher.areItemsEqual(stack, other.stack);
+    }
+
+    public static int computeHash (@Nonnull ItemStack stack) {
+        if (stack.isEmpty())
+            return 0;
+
+        // Numeric item ids change when a world or server remaps them, but the Item instances do not.  Hashing the
+        // instance keeps long-lived keys, such as the compacting rule indexes, valid across a remap.
+        int hash = stack.getItem().hashCode();
+        hash = 31 * hash + stack.getMetadata();
+
+        NBTTagCompound tag = stack.getTagCompound();
+        hash = 31 * hash + (tag != null ? tag.hashCode() : 0);
+
+        NBTTagCompound capTag = ItemStackHelper.getCapabilityTag(stack);
+        hash = 31 * hash + (capTag != null ? capTag.hashCode() : 0);
+
+        return hash;
+    }
+}
@@ -0,0 +1,85 @@
+package com.jaquadro.minecraft.storagedrawers.util;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Per-world pool of drawer item prototypes and their matchers.  Drawers storing the same item share one prototype
+ * stack and one matcher, so neither may be modified once pooled.  Entries are held weakly and are released when no
+ * drawer references them; a world's pool goes away with the world.
+ *
+ * Drawers without a world, such as those being read from an item, get unpooled instances.
+ */
+public class ItemPrototypePool
+{
+    private static final Map<World, ItemPrototypePool> pools = new WeakHashMap<>();
+
+    private final WeakInternPool<ItemStack> prototypes = new WeakInternPool<>();
+    private final WeakInternPool<ItemStackMatcher> matchers = new WeakInternPool<>();
+
+    @Nullable
+    public static ItemPrototypePool forWorld (@Nullable World world) {
+        if (world == null)
+            return null;
+
+        synchronized (pools) {
+            return pools.computeIfAbsent(world, k -> new ItemPrototypePool());
+        }
+    }
+
+    public static Map<World, ItemPrototypePool> getPools () {
+        synchronized (pools) {
+            return new HashMap<>(pools);
+        }
+    }
+
+    /**
+     * Returns the pooled prototype equal to the given one, pooling a copy of it if there is none yet.  The copy
+     * keeps later changes to the caller's stack or tag from reaching every drawer sharing the prototype.
+     */
+    @Nonnull
+    public static ItemStack internPrototype (@Nullable World world, @Nonnull ItemStack prototype) {
+        ItemPrototypePool pool = forWorld(world);
+        if (pool == null || prototype.isEmpty())
+            return prototype;
+
+        return pool.prototypes.intern(ItemIdentity.computeHash(prototype),
+            p -> p.getCount() == prototype.getCount() && ItemStackMatcher.areItemsEqual(p, prototype),
+            prototype::copy);
+    }
+
+    /**
+     * Returns a matcher for the given prototype, shared with other drawers using the same pooled prototype.
+     */
+    @Nonnull
+    public static ItemStackMatcher getMatcher (@Nullable World world, @Nonnull ItemStack prototype, boolean oreDict) {
+        if (prototype.isEmpty())
+            return ItemStackMatcher.EMPTY;
+
+        ItemPrototypePool pool = forWorld(world);
+        if (pool == null)
+            return createMatcher(prototype, oreDict);
+
+        return pool.matchers.intern(31 * System.identityHashCode(prototype) + (oreDict ? 1 : 0),
+            m -> m.stack == prototype && (m instanceof ItemStackOreMatcher) == oreDict,
+            () -> createMatcher(prototype, oreDict));
+    }
+
+    private static ItemStackMatcher createMatcher (@Nonnull ItemStack prototype, boolean oreDict) {
+        return oreDict ? new ItemStackOreMatcher(prototype) : new ItemStackMatcher(prototype);
+    }
+
+    public int getPrototypeCount () {
+        return prototypes.size();
+    }
+
+    public int getMatcherCount () {
+        return matchers.size();
+    }
+}
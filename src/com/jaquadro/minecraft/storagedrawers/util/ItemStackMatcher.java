@@ -1,6 +1,8 @@
 package com.jaquadro.minecraft.storagedrawers.util;
 
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
 
 import javax.annotation.Nonnull;
 
@@ -11,18 +13,42 @@ public class ItemStackMatcher
     @Nonnull
     protected ItemStack stack;
 
+    // Parts of the stack's identity that can be read from a candidate in constant time.  Hashing the candidate's
+    // tag would walk the whole tree, same as the comparison it's meant to skip, so only its size is fingerprinted.
+    private final Item item;
+    private final int damage;
+    private final int tagSize;
+
     public ItemStackMatcher (@Nonnull ItemStack stack) {
         this.stack = stack;
+        this.item = stack.getItem();
+        this.damage = stack.getItemDamage();
+        this.tagSize = tagSize(stack);
     }
 
     public boolean matches (@Nonnull ItemStack stack) {
-        return areItemsEqual(this.stack, stack);
+        if (stack == this.stack)
+            return !stack.isEmpty();
+
+        if (stack.isEmpty() || stack.getItem() != item || stack.getItemDamage() != damage || tagSize(stack) != tagSize)
+            return false;
+
+        return ItemStack.areItemStackTagsEqual(this.stack, stack);
     }
 
     public static boolean areItemsEqual (@Nonnull ItemStack stack1, @Nonnull ItemStack stack2) {
+        // Pooled prototypes are often compared against themselves
+        if (stack1 == stack2)
+            return !stack1.isEmpty();
+
         if (!stack1.isItemEqual(stack2))
             return false;
 
         return ItemStack.areItemStackTagsEqual(stack1, stack2);
     }
+
+    private static int tagSize (@Nonnull ItemStack stack) {
+        NBTTagCompound tag = stack.getTagCompound();
+        return (tag != null) ? tag.getSize() : -1;
+    }
 }
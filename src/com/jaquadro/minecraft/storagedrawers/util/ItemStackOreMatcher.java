@@ -5,12 +5,11 @@ import net.minecraft.item.ItemStack;
 import net.minecraftforge.oredict.OreDictionary;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
-import java.util.List;
 
 public class ItemStackOreMatcher extends ItemStackMatcher
 {
-    private List<ItemStack> oreDictMatches;
+    private OreEquivalenceTable.Entry oreEntry;
+    private int oreGeneration;
 
     public ItemStackOreMatcher (@Nonnull ItemStack stack) {
         super(stack);
@@ -19,54 +18,28 @@ public class ItemStackOreMatcher extends ItemStackMatcher
 
     @Override
     public boolean matches (@Nonnull ItemStack stack) {
-        if (!this.stack.isItemEqual(stack)) {
-            if (oreDictMatches == null)
-                return false;
-            if (this.stack.getItem() == stack.getItem())
-                return false;
+        if (this.stack.isItemEqual(stack))
+            return super.matches(stack);
 
-            boolean oreMatch = false;
-            for (ItemStack oreDictMatch : oreDictMatches) {
-                if (stack.isItemEqual(oreDictMatch)) {
-                    oreMatch = true;
-                    break;
-                }
-            }
+        OreEquivalenceTable table = StorageDrawers.oreDictRegistry.getEquivalenceTable();
+        if (oreGeneration != table.getGeneration())
+            refreshOreDictMatches();
 
-            if (!oreMatch)
-                return false;
-        }
+        if (oreEntry.getClassId() < 0)
+            return false;
+        if (this.stack.getItem() == stack.getItem())
+            return false;
+
+        if (!OreEquivalenceTable.isSubstitute(oreEntry, table.getEntry(stack)))
+            return false;
 
         return ItemStack.areItemStackTagsEqual(this.stack, stack);
     }
 
     public void refreshOreDictMatches () {
-        if (stack.isEmpty()) {
-            oreDictMatches = null;
-            return;
-        }
-
-        int[] oreIDs = OreDictionary.getOreIDs(stack);
-        if (oreIDs.length == 0)
-            oreDictMatches = null;
-        else {
-            oreDictMatches = new ArrayList<>();
-            for (int id : oreIDs) {
-                String oreName = OreDictionary.getOreName(id);
-                if (!StorageDrawers.oreDictRegistry.isEntryValid(oreName))
-                    continue;
-
-                List<ItemStack> list = OreDictionary.getOres(oreName);
-                for (ItemStack aList : list) {
-                    if (aList.getItemDamage() == OreDictionary.WILDCARD_VALUE)
-                        continue;
-                    oreDictMatches.add(aList);
-                }
-            }
-
-            if (oreDictMatches.size() == 0)
-                oreDictMatches = null;
-        }
+        OreEquivalenceTable table = StorageDrawers.oreDictRegistry.getEquivalenceTable();
+        oreGeneration = table.getGeneration();
+        oreEntry = table.getEntry(stack);
     }
 
     public static boolean areItemsEqual (@Nonnull ItemStack stack1, @Nonnull ItemStack stack2) {
@@ -80,29 +53,7 @@ public class ItemStackOreMatcher extends ItemStackMatcher
             if (stack1.getItem() == stack2.getItem())
                 return false;
 
-            int[] ids1 = OreDictionary.getOreIDs(stack1);
-            int[] ids2 = OreDictionary.getOreIDs(stack2);
-            if (ids1.length == 0 || ids2.length == 0)
-                return false;
-
-            boolean oreMatch = false;
-            for (int id1 : ids1) {
-                for (int id2 : ids2) {
-                    if (id1 != id2)
-                        continue;
-
-                    String name = OreDictionary.getOreName(id1);
-                    if (!oreDictStrictMode || StorageDrawers.oreDictRegistry.isEntryValid(name)) {
-                        oreMatch = true;
-                        break;
-                    }
-                }
-
-                if (oreMatch)
-                    break;
-            }
-
-            if (!oreMatch)
+            if (!StorageDrawers.oreDictRegistry.getEquivalenceTable().areEquivalent(stack1, stack2, oreDictStrictMode))
                 return false;
         }
 
@@ -0,0 +1,107 @@
+package com.jaquadro.minecraft.storagedrawers.util;
+
+import java.util.Arrays;
+
+public class LongOpenHashSet
+{
+    private static final float LOAD_FACTOR = .5f;
+
+    private long[] keys;
+    private boolean[] used;
+    private int size;
+    private int threshold;
+    private int mask;
+
+    public LongOpenHashSet () {
+        this(256);
+    }
+
+    public LongOpenHashSet (int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expectedSize)
+            capacity <<= 1;
+
+        allocate(capacity);
+    }
+
+    public boolean add (long key) {
+        int index = indexOf(key);
+        if (used[index])
+            return false;
+
+        used[index] = true;
+        keys[index] = key;
+
+        if (++size > threshold)
+            rehash(keys.length << 1);
+
+        return true;
+    }
+
+    public boolean contains (long key) {
+        return used[indexOf(key)];
+    }
+
+    public int size () {
+        return size;
+    }
+
+    public boolean isEmpty () {
+        return size == 0;
+    }
+
+    public int capacity () {
+        return keys.length;
+    }
+
+    public void clear () {
+        if (size == 0)
+            return;
+
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    private int indexOf (long key) {
+        int index = mix(key) & mask;
+        while (used[index] && keys[index] != key)
+            index = (index + 1) & mask;
+
+        return index;
+    }
+
+    private void allocate (int capacity) {
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        threshold = (int)(capacity * LOAD_FACTOR);
+    }
+
+    private void rehash (int capacity) {
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i])
+                addUnchecked(oldKeys[i]);
+        }
+    }
+
+    private void addUnchecked (long key) {
+        int index = indexOf(key);
+        used[index] = true;
+        keys[index] = key;
+    }
+
+    private static int mix (long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+
+        return (int)key;
+    }
+}
@@ -0,0 +1,73 @@
+package com.jaquadro.minecraft.storagedrawers.util;
+
+import java.util.NoSuchElementException;
+
+public class LongRingQueue
+{
+    private long[] data;
+    private int head;
+    private int tail;
+    private int size;
+
+    public LongRingQueue () {
+        this(256);
+    }
+
+    public LongRingQueue (int initialCapacity) {
+        int capacity = 16;
+        while (capacity < initialCapacity)
+            capacity <<= 1;
+
+        data = new long[capacity];
+    }
+
+    public void add (long value) {
+        if (size == data.length)
+            grow();
+
+        data[tail] = value;
+        tail = (tail + 1) & (data.length - 1);
+        size++;
+    }
+
+    public long remove () {
+        if (size == 0)
+            throw new NoSuchElementException();
+
+        long value = data[head];
+        head = (head + 1) & (data.length - 1);
+        size--;
+
+        return value;
+    }
+
+    public boolean isEmpty () {
+        return size == 0;
+    }
+
+    public int size () {
+        return size;
+    }
+
+    public int capacity () {
+        return data.length;
+    }
+
+    public void clear () {
+        head = 0;
+        tail = 0;
+        size = 0;
+    }
+
+    private void grow () {
+        long[] next = new long[data.length << 1];
+        int first = data.length - head;
+
+        System.arraycopy(data, head, next, 0, first);
+        System.arraycopy(data, 0, next, first, head);
+
+        data = next;
+        head = 0;
+        tail = size;
+    }
+}
@@ -0,0 +1,212 @@
+package com.jaquadro.minecraft.storagedrawers.util;
+
+import com.jaquadro.minecraft.storagedrawers.config.OreDictRegistry;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.oredict.OreDictionary;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+
+/**
+ * Ore dictionary ids for every item and metadata, split into all ids and the ids whose names {@link OreDictRegistry}
+ * allows for substitution.  Each distinct set of valid ids is given a canonical equivalence class id, so two stacks
+ * in the same class match with one int comparison.
+ *
+ * Valid ore names can overlap without one containing the other, so sharing an id is not transitive.  Stacks in
+ * different classes that both carry several valid ids fall back to intersecting their sorted ids.
+ *
+ * Ids registered for the wildcard metadata are merged into every metadata of the item.  The valid ids registered
+ * for the metadata itself are also kept apart, since a drawer only takes a substitute that is registered under its
+ * own metadata; see {@link #isSubstitute}.
+ *
+ * The table is built on first use and dropped by {@link #invalidate} whenever the ore dictionary or the registry's
+ * lists change.  Class ids are assigned afresh on each build; see {@link #getGeneration}.
+ */
+public class OreEquivalenceTable
+{
+    public static final Entry NONE = new Entry(new int[0], new int[0], new int[0], -1);
+
+    public static final class Entry
+    {
+        private final int[] oreIds;
+        private final int[] validIds;
+        private final int[] explicitValidIds;
+        private final int classId;
+
+        Entry (int[] oreIds, int[] validIds, int[] explicitValidIds, int classId) {
+            this.oreIds = oreIds;
+            this.validIds = validIds;
+            this.explicitValidIds = explicitValidIds;
+            this.classId = classId;
+        }
+
+        public int getClassId () {
+            return classId;
+        }
+    }
+
+    private final OreDictRegistry registry;
+    private volatile Map<Item, Map<Integer, Entry>> table;
+    private volatile int generation;
+
+    public OreEquivalenceTable (OreDictRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void invalidate () {
+        table = null;
+    }
+
+    /**
+     * Returns a number that changes with every rebuild.  Class ids are only comparable between entries taken from
+     * the same generation, so holders of an entry must fetch it again once this moves on.
+     */
+    public int getGeneration () {
+        if (table == null)
+            build();
+
+        return generation;
+    }
+
+    @Nonnull
+    public Entry getEntry (@Nonnull ItemStack stack) {
+        if (stack.isEmpty())
+            return NONE;
+
+        Map<Item, Map<Integer, Entry>> current = table;
+        if (current == null)
+            current = build();
+
+        Map<Integer, Entry> metaMap = current.get(stack.getItem());
+        if (metaMap == null)
+            return NONE;
+
+        Entry entry = metaMap.get(stack.getItemDamage());
+        if (entry == null)
+            entry = metaMap.get(OreDictionary.WILDCARD_VALUE);
+
+        return (entry != null) ? entry : NONE;
+    }
+
+    public boolean areEquivalent (@Nonnull ItemStack stack1, @Nonnull ItemStack stack2, boolean oreDictStrictMode) {
+        return areEquivalent(getEntry(stack1), getEntry(stack2), oreDictStrictMode);
+    }
+
+    public static boolean areEquivalent (@Nonnull Entry entry1, @Nonnull Entry entry2, boolean oreDictStrictMode) {
+        if (!oreDictStrictMode)
+            return intersects(entry1.oreIds, entry2.oreIds);
+
+        if (entry1.classId < 0 || entry2.classId < 0)
+            return false;
+        if (entry1.classId == entry2.classId)
+            return true;
+        if (entry1.validIds.length == 1 && entry2.validIds.length == 1)
+            return false;
+
+        return intersects(entry1.validIds, entry2.validIds);
+    }
+
+    /**
+     * Tests whether a drawer holding the first entry's stack takes the candidate as an ore dictionary substitute.
+     * The drawer's ids include those of wildcard registrations, but the candidate must share a valid name through a
+     * registration of its own metadata.
+     */
+    public static boolean isSubstitute (@Nonnull Entry entry, @Nonnull Entry candidate) {
+        if (candidate.explicitValidIds == candidate.validIds)
+            return areEquivalent(entry, candidate, true);
+
+        if (entry.classId < 0)
+            return false;
+
+        return intersects(entry.validIds, candidate.explicitValidIds);
+    }
+
+    private static boolean intersects (int[] ids1, int[] ids2) {
+        int i = 0;
+        int j = 0;
+
+        while (i < ids1.length && j < ids2.length) {
+            if (ids1[i] == ids2[j])
+                return true;
+            if (ids1[i] < ids2[j])
+                i++;
+            else
+                j++;
+        }
+
+        return false;
+    }
+
+    private synchronized Map<Item, Map<Integer, Entry>> build () {
+        if (table != null)
+            return table;
+
+        Map<Item, Map<Integer, Set<Integer>>> collected = new HashMap<>();
+        Set<Integer> validIds = new HashSet<>();
+
+        for (String oreName : OreDictionary.getOreNames()) {
+            int oreId = OreDictionary.getOreID(oreName);
+            if (registry.isEntryValid(oreId))
+                validIds.add(oreId);
+
+            for (ItemStack stack : OreDictionary.getOres(oreName, false)) {
+                if (stack.isEmpty())
+                    continue;
+
+                collected.computeIfAbsent(stack.getItem(), k -> new HashMap<>())
+                    .computeIfAbsent(stack.getItemDamage(), k -> new TreeSet<>())
+                    .add(oreId);
+            }
+        }
+
+        Map<List<Integer>, Integer> classIds = new HashMap<>();
+        Map<Item, Map<Integer, Entry>> built = new HashMap<>();
+
+        for (Map.Entry<Item, Map<Integer, Set<Integer>>> itemEntry : collected.entrySet()) {
+            Set<Integer> wildcardIds = itemEntry.getValue().get(OreDictionary.WILDCARD_VALUE);
+            Map<Integer, Entry> metaMap = new HashMap<>();
+
+            for (Map.Entry<Integer, Set<Integer>> metaEntry : itemEntry.getValue().entrySet()) {
+                Set<Integer> ids = metaEntry.getValue();
+                boolean wildcard = metaEntry.getKey() == OreDictionary.WILDCARD_VALUE;
+
+                List<Integer> explicitValid = wildcard ? Collections.emptyList() : filterValid(ids, validIds);
+                if (wildcardIds != null && !wildcard)
+                    ids.addAll(wildcardIds);
+
+                List<Integer> valid = filterValid(ids, validIds);
+                int[] validArray = toArray(valid);
+                int[] explicitValidArray = (explicitValid.size() == valid.size()) ? validArray : toArray(explicitValid);
+
+                int classId = valid.isEmpty() ? -1 : classIds.computeIfAbsent(valid, k -> classIds.size());
+                metaMap.put(metaEntry.getKey(), new Entry(toArray(ids), validArray, explicitValidArray, classId));
+            }
+
+            built.put(itemEntry.getKey(), metaMap);
+        }
+
+        generation++;
+        table = built;
+        return built;
+    }
+
+    private static List<Integer> filterValid (Collection<Integer> ids, Set<Integer> validIds) {
+        List<Integer> valid = new ArrayList<>();
+        for (int id : ids) {
+            if (validIds.contains(id))
+                valid.add(id);
+        }
+
+        return valid;
+    }
+
+    private static int[] toArray (Collection<Integer> ids) {
+        int[] array = new int[ids.size()];
+        int index = 0;
+        for (int id : ids)
+            array[index++] = id;
+
+        return array;
+    }
+}
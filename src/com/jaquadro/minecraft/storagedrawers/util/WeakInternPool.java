@@ -0,0 +1,71 @@
+package com.jaquadro.minecraft.storagedrawers.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Intern pool that holds its values weakly.  Values are looked up by a caller-supplied hash and match test rather
+ * than by their own equals, so types like ItemStack can be pooled without wrapping.  Collected values are purged
+ * on the next access.
+ */
+public class WeakInternPool<T>
+{
+    private final Map<Integer, List<Entry<T>>> buckets = new HashMap<>();
+    private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+    private int size;
+
+    public synchronized T intern (int hash, Predicate<T> match, Supplier<T> factory) {
+        purge();
+
+        List<Entry<T>> bucket = buckets.get(hash);
+        if (bucket != null) {
+            for (Entry<T> entry : bucket) {
+                T value = entry.get();
+                if (value != null && match.test(value))
+                    return value;
+            }
+        }
+        else {
+            bucket = new ArrayList<>(1);
+            buckets.put(hash, bucket);
+        }
+
+        T value = factory.get();
+        bucket.add(new Entry<>(value, hash, queue));
+        size++;
+
+        return value;
+    }
+
+    public synchronized int size () {
+        purge();
+        return size;
+    }
+
+    private void purge () {
+        for (Reference<? extends T> ref; (ref = queue.poll()) != null; ) {
+            Entry<?> entry = (Entry<?>) ref;
+            List<Entry<T>> bucket = buckets.get(entry.hash);
+            if (bucket == null || !bucket.remove(entry))
+                continue;
+
+            size--;
+            if (bucket.isEmpty())
+                buckets.remove(entry.hash);
+        }
+    }
+
+    private static class Entry<T> extends WeakReference<T>
+    {
+        final int hash;
+
+        Entry (T value, int hash, ReferenceQueue<T> queue) {
+            super(value, queue);
+            this.hash = hash;
+        }
+    }
+}